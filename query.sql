@@ -1,4 +1,5 @@
 CREATE EXTENSION IF NOT EXISTS "pgcrypto";
+CREATE EXTENSION IF NOT EXISTS "pg_trgm";
 
 CREATE TYPE user_role AS ENUM ('admin', 'user');
 
@@ -15,6 +16,12 @@ CREATE TABLE users (
 );
 
 CREATE INDEX idx_users_email ON users(email);
+-- Keyset pages of the admin user listing order by (created_at, user_id) within a role, optionally per status
+CREATE INDEX idx_users_role_created_at ON users(role, created_at DESC, user_id DESC);
+CREATE INDEX idx_users_role_status_created_at ON users(role, status, created_at DESC, user_id DESC);
+-- Trigram indexes serve the email prefix filter and the admin search (ILIKE) on email and full name
+CREATE INDEX idx_users_email_trgm ON users USING GIN (email gin_trgm_ops);
+CREATE INDEX idx_users_full_name_trgm ON users USING GIN (full_name gin_trgm_ops);
 
 CREATE TABLE place (
     place_id       UUID PRIMARY KEY DEFAULT gen_random_uuid(),
@@ -23,10 +30,42 @@ CREATE TABLE place (
     main_image     TEXT,
     lat            DECIMAL(10, 7),
     longitude      DECIMAL(10, 7),
+    favorite_count INTEGER NOT NULL DEFAULT 0,
+    catalog_version BIGINT NOT NULL DEFAULT 0,
     created_at     TIMESTAMP DEFAULT NOW(),
     updated_at     TIMESTAMP DEFAULT NOW()
 );
 
+-- Most-favorite listing reads this index in order instead of aggregating favorite
+CREATE INDEX idx_place_favorite_count ON place(favorite_count DESC, created_at DESC);
+
+-- Catalog version: every place insert, update, delete, image attach and favorite count change takes the next
+-- version from this row and stamps it on the place (or its tombstone). The row stays locked until the change
+-- commits, so versions become visible in order and "changed since version N" never misses a slow commit
+CREATE TABLE catalog_state (
+    id                SMALLINT PRIMARY KEY CHECK (id = 1),
+    version           BIGINT NOT NULL DEFAULT 0,
+    min_delta_version BIGINT NOT NULL DEFAULT 0 -- Tombstones at or below this version have been pruned
+);
+
+INSERT INTO catalog_state (id) VALUES (1);
+
+-- Delta sync reads places and tombstones newer than the client's version
+CREATE INDEX idx_place_catalog_version ON place(catalog_version);
+
+CREATE TABLE place_tombstone (
+    place_id        UUID PRIMARY KEY,
+    catalog_version BIGINT NOT NULL,
+    deleted_at      TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX idx_place_tombstone_catalog_version ON place_tombstone(catalog_version);
+
+CREATE TABLE place_monthly_rollup (
+    month_start    DATE PRIMARY KEY,
+    place_count    BIGINT NOT NULL DEFAULT 0
+);
+
 CREATE TABLE additional_image (
     image_id       UUID PRIMARY KEY DEFAULT gen_random_uuid(),
     image_url      TEXT NOT NULL
@@ -58,28 +97,88 @@ CREATE TABLE search_history (
     user_id        UUID NOT NULL REFERENCES users(user_id) ON DELETE CASCADE,
     place_id       UUID NOT NULL REFERENCES place(place_id) ON DELETE CASCADE,
     created_at     TIMESTAMP DEFAULT NOW(),
-    updated_at     TIMESTAMP DEFAULT NOW()
+    updated_at     TIMESTAMP DEFAULT NOW(),
+    UNIQUE(user_id, place_id)
 );
 
-CREATE INDEX idx_search_history_user ON search_history(user_id);
 CREATE INDEX idx_search_history_place ON search_history(place_id);
 CREATE INDEX idx_search_history_user_updated ON search_history(user_id, updated_at DESC);
 
-CREATE TYPE activity_action AS ENUM ('PLACE_CREATED', 'PLACE_UPDATED', 'PLACE_DELETED', 'IMAGE_UPLOADED', 'IMAGE_DELETED', 'USER_REGISTERED', 'USER_ENABLED', 'USER_DISABLED', 'USER_ROLE_UPDATED');
+-- Checkpoint of the in-memory trending scores kept by TrendingService
+CREATE TABLE place_trending_score (
+    place_id       UUID PRIMARY KEY REFERENCES place(place_id) ON DELETE CASCADE,
+    score          DOUBLE PRECISION NOT NULL,
+    updated_at     TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+-- Top-N most similar places per place, rebuilt by RecommendationService from favorite, review and search_history
+CREATE TABLE place_similarity (
+    place_id          UUID NOT NULL REFERENCES place(place_id) ON DELETE CASCADE,
+    similar_place_id  UUID NOT NULL REFERENCES place(place_id) ON DELETE CASCADE,
+    score             DOUBLE PRECISION NOT NULL,
+    PRIMARY KEY (place_id, similar_place_id)
+);
+
+CREATE INDEX idx_place_similarity_score ON place_similarity(place_id, score DESC);
+
+CREATE TABLE stored_object (
+    content_hash   CHAR(64) PRIMARY KEY,
+    object_name    TEXT UNIQUE NOT NULL,
+    ref_count      INTEGER NOT NULL DEFAULT 1,
+    created_at     TIMESTAMP DEFAULT NOW(),
+    -- Last time an upload claimed or reused this object; the orphan cleanup leaves it alone for the grace period
+    last_registered_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE TABLE metric_counters (
+    metric_name    VARCHAR(50) PRIMARY KEY,
+    value          BIGINT NOT NULL DEFAULT 0,
+    updated_at     TIMESTAMP DEFAULT NOW()
+);
+
+CREATE TABLE metric_counter_snapshot (
+    metric_name    VARCHAR(50) NOT NULL,
+    snapshot_date  DATE NOT NULL,
+    value          BIGINT NOT NULL,
+    PRIMARY KEY (metric_name, snapshot_date)
+);
+
+CREATE TYPE activity_action AS ENUM ('PLACE_CREATED', 'PLACE_UPDATED', 'PLACE_DELETED', 'PLACES_IMPORTED', 'IMAGE_UPLOADED', 'IMAGE_DELETED', 'USER_REGISTERED', 'USER_ENABLED', 'USER_DISABLED', 'USER_ROLE_UPDATED');
 CREATE TYPE entity_type AS ENUM ('PLACE', 'USER', 'IMAGE');
 
+-- Range-partitioned by month; ActivityLogPartitionService creates upcoming partitions and drops expired ones
 CREATE TABLE activity_log (
-    activity_id      UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    activity_id      UUID NOT NULL DEFAULT gen_random_uuid(),
     action           activity_action NOT NULL,
     entity_type      entity_type NOT NULL,
     entity_id        UUID,
     entity_name      VARCHAR(255),
     user_id          UUID NOT NULL REFERENCES users(user_id) ON DELETE CASCADE,
-    created_at       TIMESTAMP DEFAULT NOW()
-);
-
-CREATE INDEX idx_activity_log_created_at ON activity_log(created_at DESC);
-CREATE INDEX idx_activity_log_user ON activity_log(user_id);
+    user_email       VARCHAR(255),
+    created_at       TIMESTAMP NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (activity_id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Catches rows outside every monthly partition so inserts never fail
+CREATE TABLE activity_log_default PARTITION OF activity_log DEFAULT;
+
+-- Partitions for the current and next month; the maintenance job keeps creating them ahead from here
+DO $$
+DECLARE
+    month_start DATE;
+BEGIN
+    FOR i IN 0..1 LOOP
+        month_start := (date_trunc('month', LOCALTIMESTAMP) + make_interval(months => i))::DATE;
+        EXECUTE format('CREATE TABLE activity_log_p%s PARTITION OF activity_log FOR VALUES FROM (%L) TO (%L)',
+                       to_char(month_start, 'YYYYMM'), month_start, (month_start + INTERVAL '1 month')::DATE);
+    END LOOP;
+END $$;
+
+-- Keyset pagination of the activity feed orders by (created_at, activity_id); the filtered variants lead with the filter column
+CREATE INDEX idx_activity_log_created_at ON activity_log(created_at DESC, activity_id DESC);
+CREATE INDEX idx_activity_log_action_created_at ON activity_log(action, created_at DESC, activity_id DESC);
+CREATE INDEX idx_activity_log_entity_type_created_at ON activity_log(entity_type, created_at DESC, activity_id DESC);
+CREATE INDEX idx_activity_log_user ON activity_log(user_id, created_at DESC, activity_id DESC);
 CREATE INDEX idx_activity_log_entity ON activity_log(entity_type, entity_id);
 
 CREATE TABLE review (
@@ -2,8 +2,10 @@ package com.example.tour_place_api;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class TourPlaceApiApplication {
 	public static void main(String[] args) {
 		SpringApplication.run(TourPlaceApiApplication.class, args);
@@ -0,0 +1,30 @@
+package com.example.tour_place_api.config;
+
+import com.example.tour_place_api.service.MinioService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class MinioBucketInitializer {
+    @Autowired
+    private MinioService minioService;
+
+    // Runs right after startup and keeps retrying until MinIO is reachable;
+    // once the bucket is ready every later run is a no-op
+    @Scheduled(initialDelay = 0, fixedDelayString = "${minio.bucket-init.retry-delay-ms:10000}")
+    public void initializeBucket() {
+        if (minioService.isBucketReady()) {
+            return;
+        }
+
+        try {
+            minioService.initializeBucket();
+            log.info("MinIO bucket is ready");
+        } catch (RuntimeException e) {
+            log.warn("MinIO bucket not ready yet, will retry: {}", e.getMessage());
+        }
+    }
+}
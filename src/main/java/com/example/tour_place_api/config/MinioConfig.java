@@ -1,10 +1,15 @@
 package com.example.tour_place_api.config;
 
 import io.minio.MinioClient;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 public class MinioConfig {
     @Value("${minio.url}")
@@ -16,11 +21,48 @@ public class MinioConfig {
     @Value("${minio.secret-key}")
     private String secretKey;
 
+    @Value("${minio.http.max-requests:64}")
+    private int maxRequests;
+
+    @Value("${minio.http.max-requests-per-host:32}")
+    private int maxRequestsPerHost;
+
+    @Value("${minio.http.max-idle-connections:32}")
+    private int maxIdleConnections;
+
+    @Value("${minio.http.keep-alive-seconds:300}")
+    private long keepAliveSeconds;
+
+    @Value("${minio.http.connect-timeout-seconds:10}")
+    private long connectTimeoutSeconds;
+
+    @Value("${minio.http.write-timeout-seconds:60}")
+    private long writeTimeoutSeconds;
+
+    @Value("${minio.http.read-timeout-seconds:60}")
+    private long readTimeoutSeconds;
+
     @Bean
     public MinioClient minioClient() {
+        // Every request goes to the same MinIO host: raise OkHttp's per-host limit (default 5)
+        // and keep enough idle connections so parallel uploads reuse sockets instead of reconnecting
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+
+        OkHttpClient httpClient = new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(maxIdleConnections, keepAliveSeconds, TimeUnit.SECONDS))
+                .connectTimeout(connectTimeoutSeconds, TimeUnit.SECONDS)
+                .writeTimeout(writeTimeoutSeconds, TimeUnit.SECONDS)
+                .readTimeout(readTimeoutSeconds, TimeUnit.SECONDS)
+                .retryOnConnectionFailure(true)
+                .build();
+
         return MinioClient.builder()
                 .endpoint(minioUrl)
                 .credentials(accessKey, secretKey)
+                .httpClient(httpClient)
                 .build();
     }
 }
@@ -1,20 +1,28 @@
 package com.example.tour_place_api.controller;
 
+import com.example.tour_place_api.model.response.ActivityFeedResponse;
+import com.example.tour_place_api.model.response.ActivityLogWriterStatsResponse;
 import com.example.tour_place_api.model.response.ApiResponse;
 import com.example.tour_place_api.model.response.DashboardStatsResponse;
 import com.example.tour_place_api.model.response.PlacesOverviewResponse;
 import com.example.tour_place_api.model.response.RecentActivityResponse;
+import com.example.tour_place_api.model.response.StorageCleanupResponse;
+import com.example.tour_place_api.service.ActivityLogWriter;
 import com.example.tour_place_api.service.DashboardService;
+import com.example.tour_place_api.service.StorageCleanupService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/v1/dashboard")
@@ -25,6 +33,12 @@ public class DashboardController {
     @Autowired
     private DashboardService dashboardService;
 
+    @Autowired
+    private StorageCleanupService storageCleanupService;
+
+    @Autowired
+    private ActivityLogWriter activityLogWriter;
+
     public DashboardController(DashboardService dashboardService) {
         this.dashboardService = dashboardService;
     }
@@ -106,5 +120,124 @@ public class DashboardController {
                             .build());
         }
     }
-}
 
+    @Operation(summary = "Stream live dashboard updates",
+               description = "Server-Sent Events stream that pushes an 'activity' event (RecentActivityResponse) for each recorded activity and a 'stats' event (DashboardStatsResponse) when the totals change, replacing polling of /recent-activity and /stats. (Requires ROLE_ADMIN)",
+               security = @SecurityRequirement(name = "bearerAuth"))
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamDashboard() {
+        try {
+            return ResponseEntity.ok(dashboardService.subscribeToStream());
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    @Operation(summary = "Get activity feed",
+               description = "Returns recent activities newest first using cursor pagination, optionally filtered by action, entity type or user. Pass the returned nextCursor to load the next page. (Requires ROLE_ADMIN)",
+               security = @SecurityRequirement(name = "bearerAuth"))
+    @GetMapping("/activity-feed")
+    public ResponseEntity<ApiResponse<ActivityFeedResponse>> getActivityFeed(
+            @Parameter(description = "Cursor from the previous page (omit for the first page)", required = false)
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @Parameter(description = "Number of activities to return (1-100, default: 10)", required = false)
+            @RequestParam(value = "limit", required = false, defaultValue = "10") int limit,
+            @Parameter(description = "Filter by action (e.g. PLACE_CREATED)", required = false)
+            @RequestParam(value = "action", required = false) String action,
+            @Parameter(description = "Filter by entity type (PLACE, USER, IMAGE)", required = false)
+            @RequestParam(value = "entityType", required = false) String entityType,
+            @Parameter(description = "Filter by the user who performed the action", required = false)
+            @RequestParam(value = "userId", required = false) UUID userId) {
+        try {
+            ActivityFeedResponse feed = dashboardService.getActivityFeed(cursor, limit, action, entityType, userId);
+            return ResponseEntity.ok(
+                    ApiResponse.<ActivityFeedResponse>builder()
+                            .success(true)
+                            .message("Activity feed retrieved successfully")
+                            .payload(feed)
+                            .status(HttpStatus.OK)
+                            .build());
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.<ActivityFeedResponse>builder()
+                            .success(false)
+                            .message(e.getMessage())
+                            .status(HttpStatus.BAD_REQUEST)
+                            .build());
+        }
+    }
+
+    @Operation(summary = "Get storage cleanup status",
+               description = "Returns the result of the last orphaned-file cleanup run (scanned, orphaned and deleted objects) plus running totals. (Requires ROLE_ADMIN)",
+               security = @SecurityRequirement(name = "bearerAuth"))
+    @GetMapping("/storage-cleanup")
+    public ResponseEntity<ApiResponse<StorageCleanupResponse>> getStorageCleanupStatus() {
+        try {
+            StorageCleanupResponse status = storageCleanupService.getLastRun();
+            return ResponseEntity.ok(
+                    ApiResponse.<StorageCleanupResponse>builder()
+                            .success(true)
+                            .message("Storage cleanup status retrieved successfully")
+                            .payload(status)
+                            .status(HttpStatus.OK)
+                            .build());
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.<StorageCleanupResponse>builder()
+                            .success(false)
+                            .message(e.getMessage())
+                            .status(HttpStatus.NOT_FOUND)
+                            .build());
+        }
+    }
+
+    @Operation(summary = "Run storage cleanup",
+               description = "Finds files in MinIO that are no longer referenced by any place, place image or profile and are older than the grace period. With dryRun=true (default) orphans are only counted; with dryRun=false they are deleted. (Requires ROLE_ADMIN)",
+               security = @SecurityRequirement(name = "bearerAuth"))
+    @PostMapping("/storage-cleanup")
+    public ResponseEntity<ApiResponse<StorageCleanupResponse>> runStorageCleanup(
+            @Parameter(description = "Only report orphans without deleting them (default: true)", required = false)
+            @RequestParam(value = "dryRun", required = false, defaultValue = "true") boolean dryRun) {
+        try {
+            StorageCleanupResponse result = storageCleanupService.collectOrphans(dryRun);
+            return ResponseEntity.ok(
+                    ApiResponse.<StorageCleanupResponse>builder()
+                            .success(true)
+                            .message(dryRun ? "Storage cleanup dry run completed" : "Storage cleanup completed")
+                            .payload(result)
+                            .status(HttpStatus.OK)
+                            .build());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.<StorageCleanupResponse>builder()
+                            .success(false)
+                            .message("Error running storage cleanup: " + e.getMessage())
+                            .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .build());
+        }
+    }
+
+    @Operation(summary = "Get activity log writer metrics",
+               description = "Returns queue depth, throughput counters and flush latency of the asynchronous activity log writer. (Requires ROLE_ADMIN)",
+               security = @SecurityRequirement(name = "bearerAuth"))
+    @GetMapping("/activity-log/metrics")
+    public ResponseEntity<ApiResponse<ActivityLogWriterStatsResponse>> getActivityLogWriterStats() {
+        try {
+            ActivityLogWriterStatsResponse stats = activityLogWriter.getStats();
+            return ResponseEntity.ok(
+                    ApiResponse.<ActivityLogWriterStatsResponse>builder()
+                            .success(true)
+                            .message("Activity log writer metrics retrieved successfully")
+                            .payload(stats)
+                            .status(HttpStatus.OK)
+                            .build());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.<ActivityLogWriterStatsResponse>builder()
+                            .success(false)
+                            .message("Error retrieving activity log writer metrics: " + e.getMessage())
+                            .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .build());
+        }
+    }
+}
@@ -52,6 +52,34 @@ public class FavoriteController {
         }
     }
 
+    @Operation(summary = "Set favorite", description = "Idempotently add a place to user favorites; repeating the call returns the existing favorite (Requires ROLE_USER)",
+               security = @SecurityRequirement(name = "bearerAuth"))
+    @PutMapping("/{placeId}")
+    public ResponseEntity<ApiResponse<FavoriteResponse>> saveFavorite(
+            @PathVariable UUID placeId,
+            Authentication authentication) {
+        try {
+            JwtAuthenticationDetails details = (JwtAuthenticationDetails) authentication.getDetails();
+            UUID userId = UUID.fromString(details.getUserId());
+
+            FavoriteResponse favorite = favoriteService.saveFavorite(userId, placeId);
+            return ResponseEntity.ok(
+                    ApiResponse.<FavoriteResponse>builder()
+                            .success(true)
+                            .message("Place is in favorites")
+                            .payload(favorite)
+                            .status(HttpStatus.OK)
+                            .build());
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.<FavoriteResponse>builder()
+                            .success(false)
+                            .message(e.getMessage())
+                            .status(HttpStatus.NOT_FOUND)
+                            .build());
+        }
+    }
+
     @Operation(summary = "Get favorites", description = "Get all user favorites (Requires ROLE_USER)", 
                security = @SecurityRequirement(name = "bearerAuth"))
     @GetMapping
@@ -78,7 +106,7 @@ public class FavoriteController {
         }
     }
 
-    @Operation(summary = "Remove favorite", description = "Remove a place from user favorites (Requires ROLE_USER)", 
+    @Operation(summary = "Remove favorite", description = "Remove a place from user favorites; succeeds if it is already removed (Requires ROLE_USER)", 
                security = @SecurityRequirement(name = "bearerAuth"))
     @DeleteMapping("/{placeId}")
     public ResponseEntity<ApiResponse<Void>> removeFavorite(
@@ -88,11 +116,12 @@ public class FavoriteController {
             JwtAuthenticationDetails details = (JwtAuthenticationDetails) authentication.getDetails();
             UUID userId = UUID.fromString(details.getUserId());
 
-            favoriteService.removeFavorite(userId, placeId);
+            // Idempotent: removing a place that isn't a favorite also succeeds
+            boolean removed = favoriteService.removeFavorite(userId, placeId);
             return ResponseEntity.ok(
                     ApiResponse.<Void>builder()
                             .success(true)
-                            .message("Place removed from favorites")
+                            .message(removed ? "Place removed from favorites" : "Place is not in favorites")
                             .status(HttpStatus.OK)
                             .build());
         } catch (RuntimeException e) {
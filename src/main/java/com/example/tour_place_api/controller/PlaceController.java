@@ -1,39 +1,85 @@
 package com.example.tour_place_api.controller;
 
+import com.example.tour_place_api.model.enums.FileType;
 import com.example.tour_place_api.model.request.AddImagesRequest;
 import com.example.tour_place_api.model.request.CreatePlaceRequest;
 import com.example.tour_place_api.model.request.UpdatePlaceRequest;
 import com.example.tour_place_api.model.response.ApiResponse;
+import com.example.tour_place_api.model.response.BatchImageUploadResponse;
+import com.example.tour_place_api.model.response.CatalogChangesResponse;
+import com.example.tour_place_api.model.response.CatalogVersionResponse;
+import com.example.tour_place_api.model.response.FileUploadResultResponse;
+import com.example.tour_place_api.model.response.PlaceImportResponse;
 import com.example.tour_place_api.model.response.PlaceResponse;
 import com.example.tour_place_api.model.response.PlaceSummaryResponse;
+import com.example.tour_place_api.model.response.RecommendedPlaceResponse;
+import com.example.tour_place_api.model.response.TrendingPlaceResponse;
 import com.example.tour_place_api.security.JwtAuthenticationDetails;
+import com.example.tour_place_api.service.ApiResponseStreamer;
+import com.example.tour_place_api.service.CatalogService;
 import com.example.tour_place_api.service.PlaceService;
+import com.example.tour_place_api.service.PlaceTransferService;
 import com.example.tour_place_api.service.DashboardService;
+import com.example.tour_place_api.service.MinioService;
+import com.example.tour_place_api.service.RecommendationService;
+import com.example.tour_place_api.service.ResourceVersionService;
+import com.example.tour_place_api.service.TrendingService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.security.core.Authentication;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/v1/places")
 @RequiredArgsConstructor
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = {CatalogService.VERSION_HEADER, HttpHeaders.ETAG})
 public class PlaceController {
+    private static final int MAX_IMAGES_PER_UPLOAD = 30;
+
     @Autowired
     private PlaceService placeService;
 
     @Autowired
     private DashboardService dashboardService;
 
+    @Autowired
+    private MinioService minioService;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private RecommendationService recommendationService;
+
+    @Autowired
+    private PlaceTransferService placeTransferService;
+
+    @Autowired
+    private ApiResponseStreamer apiResponseStreamer;
+
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
+    @Autowired
+    private CatalogService catalogService;
+
     @Operation(summary = "Create place", description = "Create a new place. Optionally include mainImageUrl (get URL from /api/v1/files/upload endpoint). (Requires ROLE_ADMIN)", 
                security = @SecurityRequirement(name = "bearerAuth"))
     @PostMapping(consumes = "application/json")
@@ -67,13 +113,89 @@ public class PlaceController {
         }
     }
 
+    @Operation(summary = "Import places", description = "Bulk-create places from an NDJSON (application/x-ndjson, one object per line) or CSV (text/csv, header row) body with the same fields as Create place. Rows are validated individually and inserted in batches; invalid rows are reported by line number and do not stop the import. If reading the body fails, the places imported so far are reported with aborted=true. (Requires ROLE_ADMIN)",
+               security = @SecurityRequirement(name = "bearerAuth"))
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<ApiResponse<PlaceImportResponse>> importPlaces(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body,
+            Authentication authentication) {
+        try {
+            String format = contentType.toLowerCase().startsWith("text/csv")
+                    ? PlaceTransferService.FORMAT_CSV
+                    : PlaceTransferService.FORMAT_NDJSON;
+            PlaceImportResponse result = placeTransferService.importPlaces(body, format);
+
+            // Log activity once per import rather than per place
+            if (result.getImportedRows() > 0 && authentication != null && authentication.getDetails() instanceof JwtAuthenticationDetails) {
+                JwtAuthenticationDetails details = (JwtAuthenticationDetails) authentication.getDetails();
+                UUID userId = UUID.fromString(details.getUserId());
+                dashboardService.logActivity("PLACES_IMPORTED", "PLACE", null, result.getImportedRows() + " places", userId);
+            }
+
+            HttpStatus status;
+            String message;
+            if (result.getAborted()) {
+                // Stopped part way (e.g. the upload broke off); places imported before that stay imported
+                status = result.getImportedRows() > 0 ? HttpStatus.MULTI_STATUS : HttpStatus.BAD_REQUEST;
+                message = "Import stopped after " + result.getImportedRows() + " of " + result.getTotalRows()
+                        + " places were imported: " + result.getAbortMessage();
+            } else if (result.getFailedRows() == 0 && result.getImportedRows() > 0) {
+                status = HttpStatus.CREATED;
+                message = "Places imported successfully";
+            } else if (result.getImportedRows() == 0) {
+                status = HttpStatus.BAD_REQUEST;
+                message = "No places could be imported";
+            } else {
+                status = HttpStatus.MULTI_STATUS;
+                message = result.getImportedRows() + " of " + result.getTotalRows() + " places imported successfully";
+            }
+
+            return ResponseEntity.status(status)
+                    .body(ApiResponse.<PlaceImportResponse>builder()
+                            .success(!result.getAborted() && result.getFailedRows() == 0 && result.getImportedRows() > 0)
+                            .message(message)
+                            .payload(result)
+                            .status(status)
+                            .build());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.<PlaceImportResponse>builder()
+                            .success(false)
+                            .message("Error importing places: " + e.getMessage())
+                            .status(HttpStatus.BAD_REQUEST)
+                            .build());
+        }
+    }
+
+    @Operation(summary = "Export places", description = "Stream every place as NDJSON (format=ndjson, default) or CSV (format=csv). The output can be imported again. (Requires ROLE_ADMIN)",
+               security = @SecurityRequirement(name = "bearerAuth"))
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportPlaces(
+            @Parameter(description = "Output format: 'ndjson' or 'csv'", required = false, example = "ndjson")
+            @RequestParam(value = "format", required = false, defaultValue = "ndjson") String format) {
+        boolean csv = PlaceTransferService.FORMAT_CSV.equalsIgnoreCase(format);
+        String resolvedFormat = csv ? PlaceTransferService.FORMAT_CSV : PlaceTransferService.FORMAT_NDJSON;
+        StreamingResponseBody body = output -> placeTransferService.exportPlaces(output, resolvedFormat);
+
+        return ResponseEntity.ok()
+                .contentType(csv ? MediaType.parseMediaType("text/csv;charset=UTF-8") : MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"places." + resolvedFormat + "\"")
+                .body(body);
+    }
+
     @Operation(summary = "Get all places", description = "Get all places. Filter by 'most_favorite' to get places ordered by favorite count, or 'all' (or omit) for all places. If authenticated (Bearer token optional), includes isFavorite field. (Public endpoint, optional Bearer token)", 
                security = {})
     @GetMapping
     public ResponseEntity<ApiResponse<List<PlaceResponse>>> getAllPlaces(
             @Parameter(description = "Filter: 'most_favorite' to order by favorite count, 'all' or omit for all places", required = false, example = "all")
             @RequestParam(value = "filter", required = false, defaultValue = "all") String filter,
-            Authentication authentication) {
+            @Parameter(description = "Page size for the most_favorite listing (1-100); omit to return all places", required = false)
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @Parameter(description = "Pagination offset for the most_favorite listing (default: 0)", required = false)
+            @RequestParam(value = "offset", required = false, defaultValue = "0") int offset,
+            Authentication authentication,
+            ServletWebRequest webRequest) {
         try {
             // Extract userId if authenticated, otherwise null
             UUID userId = null;
@@ -82,7 +204,12 @@ public class PlaceController {
                 userId = UUID.fromString(details.getUserId());
             }
             
-            List<PlaceResponse> places = placeService.getAllPlaces(filter, userId);
+            // Unchanged catalog: answer 304 without loading any place
+            if (resourceVersionService.checkNotModified(webRequest, resourceVersionService.placesETag(webRequest, userId), userId != null)) {
+                return null;
+            }
+
+            List<PlaceResponse> places = placeService.getAllPlaces(filter, userId, limit, offset);
             return ResponseEntity.ok(
                     ApiResponse.<List<PlaceResponse>>builder()
                             .success(true)
@@ -100,12 +227,95 @@ public class PlaceController {
         }
     }
 
+    @Operation(summary = "Stream all places", description = "Same response as Get all places (without limit/offset), written to the client place by place so memory use does not grow with the catalog. (Public endpoint, optional Bearer token)",
+               security = {})
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllPlaces(
+            @Parameter(description = "Filter: 'most_favorite' to order by favorite count, 'all' or omit for all places", required = false, example = "all")
+            @RequestParam(value = "filter", required = false, defaultValue = "all") String filter,
+            Authentication authentication) {
+        // Resolved here: the body is written on another thread without the security context
+        UUID userId = null;
+        if (authentication != null && authentication.isAuthenticated() && authentication.getDetails() instanceof JwtAuthenticationDetails) {
+            JwtAuthenticationDetails details = (JwtAuthenticationDetails) authentication.getDetails();
+            userId = UUID.fromString(details.getUserId());
+        }
+
+        UUID viewerId = userId;
+        StreamingResponseBody body = apiResponseStreamer.<PlaceResponse>streamList("Places retrieved successfully",
+                sink -> placeService.streamAllPlaces(filter, viewerId, sink));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    @Operation(summary = "Get catalog version", description = "Current catalog version. It increases with every place change (create, update, delete, image attach, favorite count), so a client can skip reloading places while it is unchanged. (Public endpoint)",
+               security = {})
+    @GetMapping("/version")
+    public ResponseEntity<ApiResponse<CatalogVersionResponse>> getCatalogVersion() {
+        try {
+            long version = catalogService.getCurrentVersion();
+            return ResponseEntity.ok()
+                    .header(CatalogService.VERSION_HEADER, String.valueOf(version))
+                    .body(ApiResponse.<CatalogVersionResponse>builder()
+                            .success(true)
+                            .message("Catalog version retrieved successfully")
+                            .payload(new CatalogVersionResponse(version))
+                            .status(HttpStatus.OK)
+                            .build());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.<CatalogVersionResponse>builder()
+                            .success(false)
+                            .message("Error retrieving catalog version: " + e.getMessage())
+                            .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .build());
+        }
+    }
+
+    @Operation(summary = "Get catalog changes", description = "Places added or changed and IDs of places deleted since the given catalog version, oldest change first. Call again with the returned version while hasMore is true. If resyncRequired is true the version is too old; reload the full list. (Public endpoint, optional Bearer token)",
+               security = {})
+    @GetMapping("/changes")
+    public ResponseEntity<ApiResponse<CatalogChangesResponse>> getCatalogChanges(
+            @Parameter(description = "Catalog version the client already has (0 for everything)", required = true, example = "0")
+            @RequestParam("since") long since,
+            @Parameter(description = "Maximum number of changes to return (1-500, default: 200)", required = false)
+            @RequestParam(value = "limit", required = false, defaultValue = "200") int limit,
+            Authentication authentication) {
+        try {
+            // Extract userId if authenticated, otherwise null
+            UUID userId = null;
+            if (authentication != null && authentication.isAuthenticated() && authentication.getDetails() instanceof JwtAuthenticationDetails) {
+                JwtAuthenticationDetails details = (JwtAuthenticationDetails) authentication.getDetails();
+                userId = UUID.fromString(details.getUserId());
+            }
+
+            CatalogChangesResponse changes = catalogService.getChangesSince(since, limit, userId);
+            return ResponseEntity.ok()
+                    .header(CatalogService.VERSION_HEADER, String.valueOf(changes.getVersion()))
+                    .body(ApiResponse.<CatalogChangesResponse>builder()
+                            .success(true)
+                            .message("Catalog changes retrieved successfully")
+                            .payload(changes)
+                            .status(HttpStatus.OK)
+                            .build());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.<CatalogChangesResponse>builder()
+                            .success(false)
+                            .message("Error retrieving catalog changes: " + e.getMessage())
+                            .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .build());
+        }
+    }
+
     @Operation(summary = "Get place by ID", description = "Get a place by ID. If authenticated (Bearer token optional), includes isFavorite field. (Public endpoint, optional Bearer token)", 
                security = {})
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<PlaceResponse>> getPlaceById(
             @PathVariable UUID id,
-            Authentication authentication) {
+            Authentication authentication,
+            ServletWebRequest webRequest) {
         try {
             // Extract userId if authenticated, otherwise null
             UUID userId = null;
@@ -114,6 +324,10 @@ public class PlaceController {
                 userId = UUID.fromString(details.getUserId());
             }
             
+            if (resourceVersionService.checkNotModified(webRequest, resourceVersionService.placeETag(id, userId), userId != null)) {
+                return null;
+            }
+
             PlaceResponse place = placeService.getPlaceById(id, userId);
             return ResponseEntity.ok(
                     ApiResponse.<PlaceResponse>builder()
@@ -132,14 +346,103 @@ public class PlaceController {
         }
     }
 
+    @Operation(summary = "Get trending places", description = "Places ranked by recent searches and favorites, with older activity decaying away over time. (Public endpoint)",
+               security = {})
+    @GetMapping("/trending")
+    public ResponseEntity<ApiResponse<List<TrendingPlaceResponse>>> getTrendingPlaces(
+            @Parameter(description = "Number of places to return (default: 10)", required = false)
+            @RequestParam(value = "limit", required = false, defaultValue = "10") int limit) {
+        try {
+            List<TrendingPlaceResponse> places = trendingService.getTrending(limit);
+            return ResponseEntity.ok(
+                    ApiResponse.<List<TrendingPlaceResponse>>builder()
+                            .success(true)
+                            .message("Trending places retrieved successfully")
+                            .payload(places)
+                            .status(HttpStatus.OK)
+                            .build());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.<List<TrendingPlaceResponse>>builder()
+                            .success(false)
+                            .message("Error retrieving trending places: " + e.getMessage())
+                            .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .build());
+        }
+    }
+
+    @Operation(summary = "Get similar places", description = "Places most often liked, reviewed or searched by the same users as this one, from the nightly similarity model. (Public endpoint)",
+               security = {})
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<ApiResponse<List<RecommendedPlaceResponse>>> getSimilarPlaces(
+            @PathVariable UUID id,
+            @Parameter(description = "Number of places to return (1-50, default: 10)", required = false)
+            @RequestParam(value = "limit", required = false, defaultValue = "10") int limit) {
+        try {
+            List<RecommendedPlaceResponse> places = recommendationService.getSimilarPlaces(id, limit);
+            return ResponseEntity.ok(
+                    ApiResponse.<List<RecommendedPlaceResponse>>builder()
+                            .success(true)
+                            .message("Similar places retrieved successfully")
+                            .payload(places)
+                            .status(HttpStatus.OK)
+                            .build());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.<List<RecommendedPlaceResponse>>builder()
+                            .success(false)
+                            .message("Error retrieving similar places: " + e.getMessage())
+                            .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .build());
+        }
+    }
+
+    @Operation(summary = "Get recommended places", description = "Places similar to the ones the signed-in user favorited, reviewed or searched. Without a token, or without history, returns trending places. (Public endpoint, optional Bearer token)",
+               security = {})
+    @GetMapping("/recommended")
+    public ResponseEntity<ApiResponse<List<RecommendedPlaceResponse>>> getRecommendedPlaces(
+            @Parameter(description = "Number of places to return (1-50, default: 10)", required = false)
+            @RequestParam(value = "limit", required = false, defaultValue = "10") int limit,
+            Authentication authentication) {
+        try {
+            // Extract userId if authenticated, otherwise null
+            UUID userId = null;
+            if (authentication != null && authentication.isAuthenticated() && authentication.getDetails() instanceof JwtAuthenticationDetails) {
+                JwtAuthenticationDetails details = (JwtAuthenticationDetails) authentication.getDetails();
+                userId = UUID.fromString(details.getUserId());
+            }
+
+            List<RecommendedPlaceResponse> places = recommendationService.getRecommendedPlaces(userId, limit);
+            return ResponseEntity.ok(
+                    ApiResponse.<List<RecommendedPlaceResponse>>builder()
+                            .success(true)
+                            .message("Recommended places retrieved successfully")
+                            .payload(places)
+                            .status(HttpStatus.OK)
+                            .build());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.<List<RecommendedPlaceResponse>>builder()
+                            .success(false)
+                            .message("Error retrieving recommended places: " + e.getMessage())
+                            .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .build());
+        }
+    }
+
     @Operation(summary = "Search places", description = "Search places by name. Returns lightweight results with only placeId and placeName (like YouTube search). (Public endpoint, optional Bearer token)", 
                security = {})
     @GetMapping("/search")
     public ResponseEntity<ApiResponse<List<PlaceSummaryResponse>>> searchPlaces(
             @Parameter(description = "Search query to find places by name", required = true, example = "Khmer")
             @RequestParam("query") String query,
-            Authentication authentication) {
+            Authentication authentication,
+            ServletWebRequest webRequest) {
         try {
+            if (resourceVersionService.checkNotModified(webRequest, resourceVersionService.placesETag(webRequest, null), false)) {
+                return null;
+            }
+
             List<PlaceSummaryResponse> places = placeService.searchPlacesSummary(query);
             return ResponseEntity.ok(
                     ApiResponse.<List<PlaceSummaryResponse>>builder()
@@ -168,7 +471,8 @@ public class PlaceController {
             @RequestParam("longitude") double longitude,
             @Parameter(description = "Maximum number of results to return (1-100)", required = false, example = "10")
             @RequestParam(value = "limit", required = false, defaultValue = "10") int limit,
-            Authentication authentication) {
+            Authentication authentication,
+            ServletWebRequest webRequest) {
         try {
             // Validate limit
             if (limit < 1) limit = 1;
@@ -199,6 +503,10 @@ public class PlaceController {
                 userId = UUID.fromString(details.getUserId());
             }
             
+            if (resourceVersionService.checkNotModified(webRequest, resourceVersionService.placesETag(webRequest, userId), userId != null)) {
+                return null;
+            }
+
             List<PlaceResponse> places = placeService.getNearbyPlaces(lat, longitude, limit, userId);
             return ResponseEntity.ok(
                     ApiResponse.<List<PlaceResponse>>builder()
@@ -258,16 +566,7 @@ public class PlaceController {
             @PathVariable UUID id,
             Authentication authentication) {
         try {
-            // Get place name before deletion for activity log
-            String placeName = "Unknown";
-            try {
-                PlaceResponse place = placeService.getPlaceById(id, null);
-                placeName = place.getPlaceName();
-            } catch (Exception e) {
-                // Place not found, use default name
-            }
-            
-            placeService.deletePlace(id);
+            String placeName = placeService.deletePlace(id);
             
             // Log activity
             if (authentication != null && authentication.getDetails() instanceof JwtAuthenticationDetails) {
@@ -331,4 +630,124 @@ public class PlaceController {
                             .build());
         }
     }
+
+    @Operation(summary = "Upload images to place", description = "Upload up to " + MAX_IMAGES_PER_UPLOAD + " detail images in one multipart request and attach them to a place. Files are uploaded to MinIO in parallel and registered with the place in a single transaction; the response reports success or failure per file. (Requires ROLE_ADMIN)", 
+               security = @SecurityRequirement(name = "bearerAuth"))
+    @PostMapping(value = "/{id}/images/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<BatchImageUploadResponse>> uploadAdditionalImages(
+            @PathVariable UUID id,
+            @RequestParam("files") List<MultipartFile> files,
+            Authentication authentication) {
+        if (files == null || files.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.<BatchImageUploadResponse>builder()
+                            .success(false)
+                            .message("At least one file is required")
+                            .status(HttpStatus.BAD_REQUEST)
+                            .build());
+        }
+        if (files.size() > MAX_IMAGES_PER_UPLOAD) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.<BatchImageUploadResponse>builder()
+                            .success(false)
+                            .message("A maximum of " + MAX_IMAGES_PER_UPLOAD + " files can be uploaded at once")
+                            .status(HttpStatus.BAD_REQUEST)
+                            .build());
+        }
+
+        // Check the place before uploading anything so a bad ID does not leave objects behind
+        PlaceResponse place;
+        try {
+            place = placeService.getPlaceById(id, null);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.<BatchImageUploadResponse>builder()
+                            .success(false)
+                            .message(e.getMessage())
+                            .status(HttpStatus.NOT_FOUND)
+                            .build());
+        }
+
+        try {
+            JwtAuthenticationDetails details = (JwtAuthenticationDetails) authentication.getDetails();
+            String userId = details.getUserId();
+
+            List<FileUploadResultResponse> results = minioService.uploadFilesConcurrently(files, FileType.DETAIL_IMAGE, userId);
+
+            List<FileUploadResultResponse> uploaded = new ArrayList<>();
+            List<String> imageUrls = new ArrayList<>();
+            for (FileUploadResultResponse result : results) {
+                if (Boolean.TRUE.equals(result.getSuccess())) {
+                    String fileUrl = ServletUriComponentsBuilder.fromCurrentContextPath()
+                            .path("/api/v1/file/view")
+                            .queryParam("fileName", result.getFileName())
+                            .toUriString();
+                    result.setFileUrl(fileUrl);
+                    uploaded.add(result);
+                    imageUrls.add(fileUrl);
+                }
+            }
+
+            if (!imageUrls.isEmpty()) {
+                try {
+                    placeService.addAdditionalImages(id, imageUrls);
+                } catch (RuntimeException e) {
+                    // Nothing was attached, so remove the objects that were just uploaded
+                    for (FileUploadResultResponse result : uploaded) {
+                        try {
+                            minioService.deleteFile(result.getFileName());
+                        } catch (RuntimeException ignored) {
+                            // Left for the storage cleanup; the place is unaffected either way
+                        }
+                        result.setSuccess(false);
+                        result.setFileName(null);
+                        result.setFileUrl(null);
+                        result.setError("Failed to attach image to place: " + e.getMessage());
+                    }
+                    uploaded.clear();
+                }
+            }
+
+            if (!uploaded.isEmpty()) {
+                dashboardService.logActivity("IMAGE_UPLOADED", "IMAGE", id, place.getPlaceName(), UUID.fromString(userId));
+            }
+
+            int failed = results.size() - uploaded.size();
+            BatchImageUploadResponse payload = BatchImageUploadResponse.builder()
+                    .placeId(id)
+                    .totalFiles(results.size())
+                    .uploadedFiles(uploaded.size())
+                    .failedFiles(failed)
+                    .results(results)
+                    .build();
+
+            HttpStatus status;
+            String message;
+            if (failed == 0) {
+                status = HttpStatus.CREATED;
+                message = "Images uploaded successfully";
+            } else if (uploaded.isEmpty()) {
+                status = HttpStatus.BAD_REQUEST;
+                message = "No images could be uploaded";
+            } else {
+                status = HttpStatus.MULTI_STATUS;
+                message = uploaded.size() + " of " + results.size() + " images uploaded successfully";
+            }
+
+            return ResponseEntity.status(status)
+                    .body(ApiResponse.<BatchImageUploadResponse>builder()
+                            .success(failed == 0)
+                            .message(message)
+                            .payload(payload)
+                            .status(status)
+                            .build());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.<BatchImageUploadResponse>builder()
+                            .success(false)
+                            .message("Error uploading images: " + e.getMessage())
+                            .status(HttpStatus.BAD_REQUEST)
+                            .build());
+        }
+    }
 }
@@ -6,6 +6,7 @@ import com.example.tour_place_api.model.response.ApiResponse;
 import com.example.tour_place_api.model.response.PlaceRatingResponse;
 import com.example.tour_place_api.model.response.ReviewResponse;
 import com.example.tour_place_api.security.JwtAuthenticationDetails;
+import com.example.tour_place_api.service.ResourceVersionService;
 import com.example.tour_place_api.service.ReviewService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -17,6 +18,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -29,6 +31,9 @@ public class ReviewController {
     @Autowired
     private ReviewService reviewService;
 
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
     @Operation(summary = "Create review", description = "Create a review for a place. One review per user per place. (Requires authentication)", 
                security = @SecurityRequirement(name = "bearerAuth"))
     @PostMapping
@@ -118,8 +123,14 @@ public class ReviewController {
     @GetMapping("/place/{placeId}")
     public ResponseEntity<ApiResponse<List<ReviewResponse>>> getReviewsByPlace(
             @Parameter(description = "Place ID to get reviews for", required = true)
-            @PathVariable UUID placeId) {
+            @PathVariable UUID placeId,
+            ServletWebRequest webRequest) {
         try {
+            // Unchanged reviews: answer 304 without loading them
+            if (resourceVersionService.checkNotModified(webRequest, resourceVersionService.placeReviewsETag(placeId), false)) {
+                return null;
+            }
+
             List<ReviewResponse> reviews = reviewService.getReviewsByPlaceId(placeId);
             return ResponseEntity.ok(
                     ApiResponse.<List<ReviewResponse>>builder()
@@ -190,8 +201,13 @@ public class ReviewController {
     @GetMapping("/place/{placeId}/rating")
     public ResponseEntity<ApiResponse<PlaceRatingResponse>> getPlaceRating(
             @Parameter(description = "Place ID to get rating for", required = true)
-            @PathVariable UUID placeId) {
+            @PathVariable UUID placeId,
+            ServletWebRequest webRequest) {
         try {
+            if (resourceVersionService.checkNotModified(webRequest, resourceVersionService.placeReviewsETag(placeId), false)) {
+                return null;
+            }
+
             PlaceRatingResponse rating = reviewService.getPlaceRating(placeId);
             return ResponseEntity.ok(
                     ApiResponse.<PlaceRatingResponse>builder()
@@ -3,19 +3,26 @@ package com.example.tour_place_api.controller;
 import com.example.tour_place_api.model.request.UpdateUserRoleRequest;
 import com.example.tour_place_api.model.request.UpdateUserStatusRequest;
 import com.example.tour_place_api.model.response.ApiResponse;
+import com.example.tour_place_api.model.response.UserPageResponse;
 import com.example.tour_place_api.model.response.UserResponse;
 import com.example.tour_place_api.security.JwtAuthenticationDetails;
+import com.example.tour_place_api.service.ApiResponseStreamer;
 import com.example.tour_place_api.service.UserManagementService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -28,6 +35,9 @@ public class UserManagementController {
     @Autowired
     private UserManagementService userManagementService;
 
+    @Autowired
+    private ApiResponseStreamer apiResponseStreamer;
+
     @Operation(summary = "Get all users",
                description = "Returns a list of all users in the system. (Requires ROLE_ADMIN)",
                security = @SecurityRequirement(name = "bearerAuth"))
@@ -52,6 +62,56 @@ public class UserManagementController {
         }
     }
 
+    @Operation(summary = "Get users page",
+               description = "Returns one page of regular users, newest first, with optional filters. Pass nextCursor from the previous page as cursor to continue. (Requires ROLE_ADMIN)",
+               security = @SecurityRequirement(name = "bearerAuth"))
+    @GetMapping("/page")
+    public ResponseEntity<ApiResponse<UserPageResponse>> getUsersPage(
+            @Parameter(description = "Cursor from the previous page (omit for the first page)", required = false)
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @Parameter(description = "Number of users to return (1-100, default: 20)", required = false)
+            @RequestParam(value = "limit", required = false, defaultValue = "20") int limit,
+            @Parameter(description = "Filter by account status (true = enabled, false = disabled)", required = false)
+            @RequestParam(value = "status", required = false) Boolean status,
+            @Parameter(description = "Only users created at or after this time (ISO date-time)", required = false, example = "2025-01-01T00:00:00")
+            @RequestParam(value = "createdFrom", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @Parameter(description = "Only users created before this time (ISO date-time)", required = false, example = "2026-01-01T00:00:00")
+            @RequestParam(value = "createdTo", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @Parameter(description = "Only users whose email starts with this text (case-insensitive)", required = false)
+            @RequestParam(value = "emailPrefix", required = false) String emailPrefix,
+            @Parameter(description = "Search text matched anywhere in email or full name (case-insensitive)", required = false)
+            @RequestParam(value = "search", required = false) String search) {
+        try {
+            UserPageResponse page = userManagementService.getUsersPage(cursor, limit, status, createdFrom, createdTo, emailPrefix, search);
+            return ResponseEntity.ok(
+                    ApiResponse.<UserPageResponse>builder()
+                            .success(true)
+                            .message("Users retrieved successfully")
+                            .payload(page)
+                            .status(HttpStatus.OK)
+                            .build());
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.<UserPageResponse>builder()
+                            .success(false)
+                            .message(e.getMessage())
+                            .status(HttpStatus.BAD_REQUEST)
+                            .build());
+        }
+    }
+
+    @Operation(summary = "Stream all users",
+               description = "Same response as Get all users, written to the client row by row so memory use does not grow with the number of users. (Requires ROLE_ADMIN)",
+               security = @SecurityRequirement(name = "bearerAuth"))
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllUsers() {
+        StreamingResponseBody body = apiResponseStreamer.streamList("Users retrieved successfully",
+                userManagementService::streamAllUsers);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
     @Operation(summary = "Get user by ID",
                description = "Returns details of a specific user. (Requires ROLE_ADMIN)",
                security = @SecurityRequirement(name = "bearerAuth"))
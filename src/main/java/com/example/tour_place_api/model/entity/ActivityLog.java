@@ -18,7 +18,7 @@ public class ActivityLog {
     private UUID entityId;
     private String entityName;
     private UUID userId;
-    private String userEmail; // Populated by mapper join
+    private String userEmail; // Copied from users when the row is written
     private LocalDateTime createdAt;
 }
 
@@ -0,0 +1,15 @@
+package com.example.tour_place_api.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CatalogState {
+    private Long version;
+    private Long minDeltaVersion; // Deltas from older versions can't be served; tombstones were pruned
+}
@@ -0,0 +1,19 @@
+package com.example.tour_place_api.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DashboardCounts {
+    private Long totalUsers;
+    private Long usersPreviousMonth;
+    private Long totalPlaces;
+    private Long placesPreviousMonth;
+    private Long totalImages;
+    private Long imagesPreviousMonth;
+}
@@ -0,0 +1,15 @@
+package com.example.tour_place_api.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MetricCounter {
+    private String metricName;
+    private Long value;
+}
@@ -19,6 +19,8 @@ public class Place {
     private String mainImage;
     private BigDecimal lat;
     private BigDecimal longitude;
+    private Integer favoriteCount;
+    private Long catalogVersion; // Catalog version of the place's last change
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
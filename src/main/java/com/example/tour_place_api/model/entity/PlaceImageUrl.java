@@ -0,0 +1,16 @@
+package com.example.tour_place_api.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PlaceImageUrl {
+    private UUID placeId;
+    private String imageUrl;
+}
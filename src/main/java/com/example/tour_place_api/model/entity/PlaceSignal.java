@@ -0,0 +1,17 @@
+package com.example.tour_place_api.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PlaceSignal {
+    private UUID userId;
+    private UUID placeId;
+    private Double weight; // Combined strength of the user's favorite, review and search for the place
+}
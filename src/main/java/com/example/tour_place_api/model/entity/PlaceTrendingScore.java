@@ -0,0 +1,18 @@
+package com.example.tour_place_api.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PlaceTrendingScore {
+    private UUID placeId;
+    private Double score; // Decayed score as of updatedAt
+    private LocalDateTime updatedAt;
+}
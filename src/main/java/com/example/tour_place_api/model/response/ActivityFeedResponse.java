@@ -0,0 +1,17 @@
+package com.example.tour_place_api.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ActivityFeedResponse {
+    private List<RecentActivityResponse> activities;
+    private String nextCursor; // Pass back as cursor to get the next page; null on the last page
+    private Boolean hasMore;
+}
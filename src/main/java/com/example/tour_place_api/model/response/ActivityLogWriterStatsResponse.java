@@ -0,0 +1,25 @@
+package com.example.tour_place_api.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ActivityLogWriterStatsResponse {
+    private Long queueDepth;
+    private Long queueCapacity;
+    private String overflowPolicy;
+    private Long enqueued;
+    private Long written;
+    private Long dropped;
+    private Long failed;
+    private Long callerRuns;
+    private Long flushes;
+    private Long lastFlushLatencyMs;
+    private Long maxFlushLatencyMs;
+    private Double averageFlushLatencyMs;
+}
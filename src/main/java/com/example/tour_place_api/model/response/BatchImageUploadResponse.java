@@ -0,0 +1,20 @@
+package com.example.tour_place_api.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchImageUploadResponse {
+    private UUID placeId;
+    private Integer totalFiles;
+    private Integer uploadedFiles;
+    private Integer failedFiles;
+    private List<FileUploadResultResponse> results;
+}
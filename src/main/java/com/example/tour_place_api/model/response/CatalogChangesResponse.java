@@ -0,0 +1,21 @@
+package com.example.tour_place_api.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CatalogChangesResponse {
+    private Long sinceVersion;
+    private Long version; // Pass back as since for the next call
+    private List<PlaceResponse> places; // Added or changed since sinceVersion
+    private List<UUID> deletedPlaceIds;
+    private Boolean hasMore;
+    private Boolean resyncRequired; // true when sinceVersion is too old for a delta; reload the full list
+}
@@ -0,0 +1,22 @@
+package com.example.tour_place_api.model.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FileUploadResultResponse {
+    private String originalFileName;
+    private String fileName;
+    private String fileUrl;
+    private String fileType;
+    private Long fileSize;
+    private Boolean success;
+    private String error;
+}
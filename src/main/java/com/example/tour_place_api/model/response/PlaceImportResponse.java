@@ -0,0 +1,23 @@
+package com.example.tour_place_api.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PlaceImportResponse {
+    private String format;
+    private Integer totalRows;
+    private Integer importedRows;
+    private Integer failedRows;
+    private List<PlaceImportErrorResponse> errors;
+    private Boolean errorsTruncated;
+    private Boolean aborted;
+    private String abortMessage;
+    private Long durationMs;
+}
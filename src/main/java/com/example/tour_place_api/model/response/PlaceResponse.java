@@ -22,6 +22,8 @@ public class PlaceResponse {
     private BigDecimal longitude;
     private List<String> additionalImages;
     private Boolean isFavorite; // null if not authenticated, true/false if authenticated
+    private Integer favoriteCount;
+    private Long catalogVersion;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
@@ -0,0 +1,18 @@
+package com.example.tour_place_api.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecommendedPlaceResponse {
+    private UUID placeId;
+    private String placeName;
+    private String mainImage;
+    private Double score;
+}
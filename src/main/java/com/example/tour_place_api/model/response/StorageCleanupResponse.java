@@ -0,0 +1,24 @@
+package com.example.tour_place_api.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StorageCleanupResponse {
+    private Boolean dryRun;
+    private LocalDateTime startedAt;
+    private Long durationMs;
+    private Long referencedObjects;
+    private Long objectsScanned;
+    private Long orphansFound;
+    private Long objectsDeleted;
+    private Long deleteFailures;
+    private Long totalRuns;
+    private Long totalObjectsDeleted;
+}
@@ -18,6 +18,17 @@ public interface AdditionalImageMapper {
             """)
     void insert(AdditionalImage image);
 
+    @Insert("""
+            <script>
+            INSERT INTO additional_image (image_id, image_url)
+            VALUES
+            <foreach collection="images" item="image" separator=",">
+                (#{image.imageId}::UUID, #{image.imageUrl})
+            </foreach>
+            </script>
+            """)
+    void insertBatch(@Param("images") List<AdditionalImage> images);
+
     @Results(id = "additionalImageMapper", value = {
             @Result(property = "imageId", column = "image_id", javaType = UUID.class, jdbcType = JdbcType.VARCHAR),
             @Result(property = "imageUrl", column = "image_url")
@@ -0,0 +1,54 @@
+package com.example.tour_place_api.repository.mapper;
+
+import com.example.tour_place_api.model.entity.CatalogState;
+import com.example.tour_place_api.model.entity.PlaceTombstone;
+import org.apache.ibatis.annotations.*;
+import org.apache.ibatis.type.JdbcType;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Mapper
+@Repository
+public interface CatalogMapper {
+
+    @Results(id = "catalogStateMapper", value = {
+            @Result(property = "version", column = "version"),
+            @Result(property = "minDeltaVersion", column = "min_delta_version")
+    })
+    @Select("""
+            SELECT version, min_delta_version FROM catalog_state WHERE id = 1
+            """)
+    CatalogState findState();
+
+    // Locks catalog_state until commit, like the version bump inside the place statements
+    @Select("""
+            UPDATE catalog_state SET version = version + 1 WHERE id = 1 RETURNING version
+            """)
+    long nextVersion();
+
+    @Results(id = "placeTombstoneMapper", value = {
+            @Result(property = "placeId", column = "place_id", javaType = UUID.class, jdbcType = JdbcType.VARCHAR),
+            @Result(property = "catalogVersion", column = "catalog_version"),
+            @Result(property = "deletedAt", column = "deleted_at")
+    })
+    @Select("""
+            SELECT place_id, catalog_version, deleted_at FROM place_tombstone
+            WHERE catalog_version > #{sinceVersion}
+            ORDER BY catalog_version
+            LIMIT #{limit}
+            """)
+    List<PlaceTombstone> findTombstonesSince(@Param("sinceVersion") long sinceVersion, @Param("limit") int limit);
+
+    // Deletes old tombstones and raises min_delta_version past them, so clients older than that resync instead
+    @Delete("""
+            WITH pruned AS (
+                DELETE FROM place_tombstone WHERE deleted_at < #{before}
+                RETURNING catalog_version
+            )
+            UPDATE catalog_state SET min_delta_version = GREATEST(min_delta_version, (SELECT MAX(catalog_version) FROM pruned))
+            WHERE id = 1 AND EXISTS (SELECT 1 FROM pruned)
+            """)
+    void pruneTombstonesBefore(@Param("before") LocalDateTime before);
+}
@@ -1,10 +1,12 @@
 package com.example.tour_place_api.repository.mapper;
 
 import com.example.tour_place_api.model.entity.ActivityLog;
+import com.example.tour_place_api.model.entity.DashboardCounts;
 import com.example.tour_place_api.model.response.PlacesOverviewResponse;
 import org.apache.ibatis.annotations.*;
 import org.apache.ibatis.type.JdbcType;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -12,49 +14,50 @@ import java.util.UUID;
 @Repository
 public interface DashboardMapper {
 
-    // Statistics queries
-    // Count only regular users (exclude admin role)
-    @Select("SELECT COUNT(*) FROM users WHERE role = 'user'")
-    Long countTotalUsers();
-
-    @Select("""
-            SELECT COUNT(*) FROM users 
-            WHERE role = 'user' AND created_at < NOW() - INTERVAL '1 month'
-            """)
-    Long countUsersPreviousMonth();
-
-    @Select("SELECT COUNT(*) FROM place")
-    Long countTotalPlaces();
-
-    @Select("""
-            SELECT COUNT(*) FROM place 
-            WHERE created_at < NOW() - INTERVAL '1 month'
-            """)
-    Long countPlacesPreviousMonth();
-
-    @Select("""
-            SELECT COUNT(*) FROM (
-                SELECT main_image FROM place WHERE main_image IS NOT NULL AND main_image != ''
-                UNION ALL
-                SELECT ai.image_url FROM additional_image ai
-                JOIN image_of_place iop ON ai.image_id = iop.image_id
-            ) AS all_images
-            """)
-    Long countTotalImages();
-
+    // Statistics query: all dashboard counts in one round trip, used to seed and reconcile metric_counters
+    // Users exclude the admin role; images are place main images plus attached place images
+    @Results(id = "dashboardCountsMapper", value = {
+            @Result(property = "totalUsers", column = "total_users", javaType = Long.class, jdbcType = JdbcType.BIGINT),
+            @Result(property = "usersPreviousMonth", column = "users_previous_month", javaType = Long.class, jdbcType = JdbcType.BIGINT),
+            @Result(property = "totalPlaces", column = "total_places", javaType = Long.class, jdbcType = JdbcType.BIGINT),
+            @Result(property = "placesPreviousMonth", column = "places_previous_month", javaType = Long.class, jdbcType = JdbcType.BIGINT),
+            @Result(property = "totalImages", column = "total_images", javaType = Long.class, jdbcType = JdbcType.BIGINT),
+            @Result(property = "imagesPreviousMonth", column = "images_previous_month", javaType = Long.class, jdbcType = JdbcType.BIGINT)
+    })
     @Select("""
-            SELECT COUNT(*) FROM (
-                SELECT main_image FROM place 
-                WHERE main_image IS NOT NULL AND main_image != '' 
-                AND created_at < NOW() - INTERVAL '1 month'
-                UNION ALL
-                SELECT ai.image_url FROM additional_image ai
-                JOIN image_of_place iop ON ai.image_id = iop.image_id
+            WITH user_counts AS (
+                SELECT
+                    COUNT(*) AS total,
+                    COUNT(*) FILTER (WHERE created_at < NOW() - INTERVAL '1 month') AS previous_month
+                FROM users
+                WHERE role = 'user'
+            ),
+            place_counts AS (
+                SELECT
+                    COUNT(*) AS total,
+                    COUNT(*) FILTER (WHERE created_at < NOW() - INTERVAL '1 month') AS previous_month,
+                    COUNT(*) FILTER (WHERE main_image IS NOT NULL AND main_image != '') AS main_images,
+                    COUNT(*) FILTER (WHERE main_image IS NOT NULL AND main_image != ''
+                                     AND created_at < NOW() - INTERVAL '1 month') AS main_images_previous_month
+                FROM place
+            ),
+            additional_image_counts AS (
+                SELECT
+                    COUNT(*) AS total,
+                    COUNT(*) FILTER (WHERE p.created_at < NOW() - INTERVAL '1 month') AS previous_month
+                FROM image_of_place iop
                 JOIN place p ON iop.place_id = p.place_id
-                WHERE p.created_at < NOW() - INTERVAL '1 month'
-            ) AS all_images
+            )
+            SELECT
+                u.total AS total_users,
+                u.previous_month AS users_previous_month,
+                p.total AS total_places,
+                p.previous_month AS places_previous_month,
+                p.main_images + a.total AS total_images,
+                p.main_images_previous_month + a.previous_month AS images_previous_month
+            FROM user_counts u, place_counts p, additional_image_counts a
             """)
-    Long countImagesPreviousMonth();
+    DashboardCounts getDashboardCounts();
 
     // Places overview chart data
     @Results(id = "placesOverviewMapper", value = {
@@ -63,19 +66,61 @@ public interface DashboardMapper {
             @Result(property = "year", column = "year"),
             @Result(property = "count", column = "count", javaType = Long.class, jdbcType = JdbcType.BIGINT)
     })
+    // Reads the monthly rollup; generate_series fills in months without places
     @Select("""
-            SELECT 
-                TO_CHAR(created_at, 'Mon') AS month,
-                EXTRACT(MONTH FROM created_at)::INTEGER AS month_number,
-                EXTRACT(YEAR FROM created_at)::INTEGER AS year,
-                COUNT(*)::BIGINT AS count
-            FROM place
-            WHERE created_at >= NOW() - INTERVAL '${months} months'
-            GROUP BY EXTRACT(YEAR FROM created_at), EXTRACT(MONTH FROM created_at), TO_CHAR(created_at, 'Mon')
-            ORDER BY year, month_number
+            SELECT
+                TO_CHAR(m.month_start, 'Mon') AS month,
+                EXTRACT(MONTH FROM m.month_start)::INTEGER AS month_number,
+                EXTRACT(YEAR FROM m.month_start)::INTEGER AS year,
+                COALESCE(r.place_count, 0)::BIGINT AS count
+            FROM generate_series(
+                date_trunc('month', LOCALTIMESTAMP) - make_interval(months => #{months} - 1),
+                date_trunc('month', LOCALTIMESTAMP),
+                INTERVAL '1 month'
+            ) AS m(month_start)
+            LEFT JOIN place_monthly_rollup r ON r.month_start = m.month_start::DATE
+            ORDER BY m.month_start
             """)
     List<PlacesOverviewResponse> getPlacesOverviewByMonths(@Param("months") int months);
 
+    // Monthly rollup maintenance
+    @Insert("""
+            INSERT INTO place_monthly_rollup (month_start, place_count)
+            VALUES (date_trunc('month', LOCALTIMESTAMP)::DATE, 1)
+            ON CONFLICT (month_start) DO UPDATE SET place_count = place_monthly_rollup.place_count + 1
+            """)
+    void incrementPlacesCreatedThisMonth();
+
+    @Insert("""
+            INSERT INTO place_monthly_rollup (month_start, place_count)
+            VALUES (date_trunc('month', LOCALTIMESTAMP)::DATE, #{count})
+            ON CONFLICT (month_start) DO UPDATE SET place_count = place_monthly_rollup.place_count + #{count}
+            """)
+    void addPlacesCreatedThisMonth(@Param("count") int count);
+
+    @Update("""
+            UPDATE place_monthly_rollup SET place_count = GREATEST(place_count - 1, 0)
+            WHERE month_start = date_trunc('month', #{createdAt}::TIMESTAMP)::DATE
+            """)
+    void decrementPlacesCreatedInMonth(@Param("createdAt") LocalDateTime createdAt);
+
+    // Rebuilds the rollup from place in one statement
+    @Delete("""
+            WITH actual AS (
+                SELECT date_trunc('month', created_at)::DATE AS month_start, COUNT(*) AS place_count
+                FROM place
+                GROUP BY 1
+            ),
+            upserted AS (
+                INSERT INTO place_monthly_rollup (month_start, place_count)
+                SELECT month_start, place_count FROM actual
+                ON CONFLICT (month_start) DO UPDATE SET place_count = EXCLUDED.place_count
+            )
+            DELETE FROM place_monthly_rollup
+            WHERE month_start NOT IN (SELECT month_start FROM actual)
+            """)
+    void reconcilePlaceMonthlyRollup();
+
     // Activity log queries
     @Results(id = "activityLogMapper", value = {
             @Result(property = "activityId", column = "activity_id", javaType = UUID.class, jdbcType = JdbcType.VARCHAR),
@@ -87,28 +132,112 @@ public interface DashboardMapper {
             @Result(property = "createdAt", column = "created_at"),
             @Result(property = "userEmail", column = "user_email")
     })
+    // user_email is stored on the row when it is written, so the feed needs no join with users
     @Select("""
-            SELECT 
-                al.activity_id,
-                al.action,
-                al.entity_type,
-                al.entity_id,
-                al.entity_name,
-                al.user_id,
-                al.created_at,
-                u.email AS user_email
-            FROM activity_log al
-            JOIN users u ON al.user_id = u.user_id
-            ORDER BY al.created_at DESC
+            SELECT activity_id, action, entity_type, entity_id, entity_name, user_id, user_email, created_at
+            FROM activity_log
+            ORDER BY created_at DESC, activity_id DESC
             LIMIT #{limit} OFFSET #{offset}
             """)
     List<ActivityLog> findRecentActivities(@Param("limit") int limit, @Param("offset") int offset);
 
+    // Keyset page: rows strictly older than the (created_at, activity_id) cursor, served from the matching index.
+    // The plain created_at bound is redundant but lets the planner prune newer partitions, which it can't from the row comparison
+    @ResultMap("activityLogMapper")
+    @Select("""
+            <script>
+            SELECT activity_id, action, entity_type, entity_id, entity_name, user_id, user_email, created_at
+            FROM activity_log
+            <where>
+                <if test="beforeCreatedAt != null">
+                    created_at &lt;= #{beforeCreatedAt}
+                    AND (created_at, activity_id) &lt; (#{beforeCreatedAt}, #{beforeActivityId}::UUID)
+                </if>
+                <if test="action != null">
+                    AND action = #{action}::activity_action
+                </if>
+                <if test="entityType != null">
+                    AND entity_type = #{entityType}::entity_type
+                </if>
+                <if test="userId != null">
+                    AND user_id = #{userId}::UUID
+                </if>
+            </where>
+            ORDER BY created_at DESC, activity_id DESC
+            LIMIT #{limit}
+            </script>
+            """)
+    List<ActivityLog> findActivitiesBefore(@Param("beforeCreatedAt") LocalDateTime beforeCreatedAt,
+                                           @Param("beforeActivityId") UUID beforeActivityId,
+                                           @Param("action") String action,
+                                           @Param("entityType") String entityType,
+                                           @Param("userId") UUID userId,
+                                           @Param("limit") int limit);
+
     @Insert("""
-            INSERT INTO activity_log (activity_id, action, entity_type, entity_id, entity_name, user_id, created_at)
+            INSERT INTO activity_log (activity_id, action, entity_type, entity_id, entity_name, user_id, user_email, created_at)
             VALUES (#{activityId}::UUID, #{action}::activity_action, #{entityType}::entity_type, 
-                    #{entityId}::UUID, #{entityName}, #{userId}::UUID, NOW())
+                    #{entityId}::UUID, #{entityName}, #{userId}::UUID,
+                    (SELECT email FROM users WHERE user_id = #{userId}::UUID), NOW())
             """)
     void insertActivity(ActivityLog activityLog);
+
+    // Multi-row insert used by ActivityLogWriter; keeps the time each activity happened rather than the flush time
+    @Insert("""
+            <script>
+            INSERT INTO activity_log (activity_id, action, entity_type, entity_id, entity_name, user_id, user_email, created_at)
+            VALUES
+            <foreach collection="activities" item="activity" separator=",">
+                (#{activity.activityId}::UUID, #{activity.action}::activity_action, #{activity.entityType}::entity_type,
+                 #{activity.entityId}::UUID, #{activity.entityName}, #{activity.userId}::UUID,
+                 (SELECT email FROM users WHERE user_id = #{activity.userId}::UUID), #{activity.createdAt})
+            </foreach>
+            </script>
+            """)
+    void insertActivities(@Param("activities") List<ActivityLog> activities);
+
+    // Activity log partition maintenance; names and bounds come from ActivityLogPartitionService, never from requests
+    @Select("""
+            SELECT child.relname
+            FROM pg_inherits i
+            JOIN pg_class parent ON parent.oid = i.inhparent
+            JOIN pg_class child ON child.oid = i.inhrelid
+            WHERE parent.relname = 'activity_log'
+            ORDER BY child.relname
+            """)
+    List<String> findActivityLogPartitions();
+
+    @Update("""
+            CREATE TABLE IF NOT EXISTS ${partitionName} PARTITION OF activity_log
+            FOR VALUES FROM ('${fromDate}') TO ('${toDate}')
+            """)
+    void createActivityLogPartition(@Param("partitionName") String partitionName,
+                                    @Param("fromDate") String fromDate,
+                                    @Param("toDate") String toDate);
+
+    // A new range partition can't be created while the default partition holds rows in that range;
+    // the default is detached, its matching rows moved into the new partition, then attached again
+    @Update("ALTER TABLE activity_log DETACH PARTITION activity_log_default")
+    void detachActivityLogDefaultPartition();
+
+    @Update("""
+            WITH moved AS (
+                DELETE FROM activity_log_default
+                WHERE created_at >= '${fromDate}' AND created_at < '${toDate}'
+                RETURNING activity_id, action, entity_type, entity_id, entity_name, user_id, user_email, created_at
+            )
+            INSERT INTO activity_log (activity_id, action, entity_type, entity_id, entity_name, user_id, user_email, created_at)
+            SELECT activity_id, action, entity_type, entity_id, entity_name, user_id, user_email, created_at FROM moved
+            """)
+    int moveActivityLogDefaultRows(@Param("fromDate") String fromDate, @Param("toDate") String toDate);
+
+    @Update("ALTER TABLE activity_log ATTACH PARTITION activity_log_default DEFAULT")
+    void attachActivityLogDefaultPartition();
+
+    @Update("ALTER TABLE activity_log DETACH PARTITION ${partitionName}")
+    void detachActivityLogPartition(@Param("partitionName") String partitionName);
+
+    @Update("DROP TABLE IF EXISTS ${partitionName}")
+    void dropActivityLogPartition(@Param("partitionName") String partitionName);
 }
 
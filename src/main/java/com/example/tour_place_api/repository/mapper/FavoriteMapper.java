@@ -1,6 +1,7 @@
 package com.example.tour_place_api.repository.mapper;
 
 import com.example.tour_place_api.model.entity.Favorite;
+import com.example.tour_place_api.model.response.FavoriteResponse;
 import org.apache.ibatis.annotations.*;
 import org.apache.ibatis.type.JdbcType;
 import org.springframework.stereotype.Repository;
@@ -30,11 +31,11 @@ public interface FavoriteMapper {
             """)
     Optional<Favorite> findById(UUID favId);
 
-    @ResultMap("favoriteMapper")
+    // Only the IDs, for FavoriteSetCache
     @Select("""
-            SELECT * FROM favorite WHERE user_id = #{userId}::UUID ORDER BY created_at DESC
+            SELECT place_id FROM favorite WHERE user_id = #{userId}::UUID
             """)
-    List<Favorite> findByUserId(UUID userId);
+    List<UUID> findPlaceIdsByUserId(UUID userId);
 
     @ResultMap("favoriteMapper")
     @Select("""
@@ -42,13 +43,76 @@ public interface FavoriteMapper {
             """)
     Optional<Favorite> findByUserAndPlace(UUID userId, UUID placeId);
 
-    @Delete("""
-            DELETE FROM favorite WHERE fav_id = #{favId}::UUID
+    // Single-statement add: inserts only if the place exists and the pair is new, bumps favorite_count and
+    // returns the place fields from the same UPDATE. Empty when already a favorite or the place doesn't exist.
+    @Results(id = "favoriteResponseMapper", value = {
+            @Result(property = "favId", column = "fav_id", javaType = UUID.class, jdbcType = JdbcType.VARCHAR),
+            @Result(property = "userId", column = "user_id", javaType = UUID.class, jdbcType = JdbcType.VARCHAR),
+            @Result(property = "placeId", column = "place_id", javaType = UUID.class, jdbcType = JdbcType.VARCHAR),
+            @Result(property = "placeName", column = "place_name"),
+            @Result(property = "mainImage", column = "main_image"),
+            @Result(property = "createdAt", column = "created_at")
+    })
+    @Select("""
+            WITH inserted AS (
+                INSERT INTO favorite (fav_id, user_id, place_id, created_at, updated_at)
+                SELECT #{favId}::UUID, #{userId}::UUID, place_id, NOW(), NOW()
+                FROM place WHERE place_id = #{placeId}::UUID
+                ON CONFLICT (user_id, place_id) DO NOTHING
+                RETURNING fav_id, user_id, place_id, created_at
+            ),
+            bumped AS (
+                UPDATE catalog_state SET version = version + 1
+                WHERE id = 1 AND EXISTS (SELECT 1 FROM inserted)
+                RETURNING version
+            ),
+            counted AS (
+                UPDATE place SET favorite_count = favorite_count + 1, catalog_version = (SELECT version FROM bumped)
+                WHERE place_id IN (SELECT place_id FROM inserted)
+                RETURNING place_id, place_name, main_image
+            )
+            SELECT i.fav_id, i.user_id, i.place_id, c.place_name, c.main_image, i.created_at
+            FROM inserted i
+            JOIN counted c ON c.place_id = i.place_id
             """)
-    void delete(UUID favId);
+    Optional<FavoriteResponse> insertIfAbsent(@Param("favId") UUID favId, @Param("userId") UUID userId, @Param("placeId") UUID placeId);
 
-    @Delete("""
-            DELETE FROM favorite WHERE user_id = #{userId}::UUID AND place_id = #{placeId}::UUID
+    @ResultMap("favoriteResponseMapper")
+    @Select("""
+            SELECT f.fav_id, f.user_id, f.place_id, p.place_name, p.main_image, f.created_at
+            FROM favorite f
+            JOIN place p ON p.place_id = f.place_id
+            WHERE f.user_id = #{userId}::UUID AND f.place_id = #{placeId}::UUID
+            """)
+    Optional<FavoriteResponse> findResponseByUserAndPlace(@Param("userId") UUID userId, @Param("placeId") UUID placeId);
+
+    // Favorites with the place fields joined in, so the list is one query
+    @ResultMap("favoriteResponseMapper")
+    @Select("""
+            SELECT f.fav_id, f.user_id, f.place_id, p.place_name, p.main_image, f.created_at
+            FROM favorite f
+            JOIN place p ON p.place_id = f.place_id
+            WHERE f.user_id = #{userId}::UUID
+            ORDER BY f.created_at DESC
+            """)
+    List<FavoriteResponse> findResponsesByUserId(UUID userId);
+
+    // Single-statement remove: deletes the pair and decrements favorite_count; returns the number of rows removed
+    @Select("""
+            WITH deleted AS (
+                DELETE FROM favorite WHERE user_id = #{userId}::UUID AND place_id = #{placeId}::UUID
+                RETURNING place_id
+            ),
+            bumped AS (
+                UPDATE catalog_state SET version = version + 1
+                WHERE id = 1 AND EXISTS (SELECT 1 FROM deleted)
+                RETURNING version
+            ),
+            counted AS (
+                UPDATE place SET favorite_count = GREATEST(favorite_count - 1, 0), catalog_version = (SELECT version FROM bumped)
+                WHERE place_id IN (SELECT place_id FROM deleted)
+            )
+            SELECT COUNT(*) FROM deleted
             """)
-    void deleteByUserAndPlace(UUID userId, UUID placeId);
+    int deleteIfPresent(@Param("userId") UUID userId, @Param("placeId") UUID placeId);
 }
@@ -1,9 +1,11 @@
 package com.example.tour_place_api.repository.mapper;
 
 import com.example.tour_place_api.model.entity.ImageOfPlace;
+import com.example.tour_place_api.model.entity.PlaceImageUrl;
 import org.apache.ibatis.annotations.*;
 import org.apache.ibatis.type.JdbcType;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -17,6 +19,17 @@ public interface ImageOfPlaceMapper {
             """)
     void insert(ImageOfPlace imageOfPlace);
 
+    @Insert("""
+            <script>
+            INSERT INTO image_of_place (ip_id, place_id, image_id)
+            VALUES
+            <foreach collection="imageOfPlaces" item="imageOfPlace" separator=",">
+                (#{imageOfPlace.ipId}::UUID, #{imageOfPlace.placeId}::UUID, #{imageOfPlace.imageId}::UUID)
+            </foreach>
+            </script>
+            """)
+    void insertBatch(@Param("imageOfPlaces") List<ImageOfPlace> imageOfPlaces);
+
     @Results(id = "imageOfPlaceMapper", value = {
             @Result(property = "ipId", column = "ip_id", javaType = UUID.class, jdbcType = JdbcType.VARCHAR),
             @Result(property = "placeId", column = "place_id", javaType = UUID.class, jdbcType = JdbcType.VARCHAR),
@@ -27,6 +40,24 @@ public interface ImageOfPlaceMapper {
             """)
     List<ImageOfPlace> findByPlaceId(UUID placeId);
 
+    // Additional image URLs for a page of places in one query
+    @Results(id = "placeImageUrlMapper", value = {
+            @Result(property = "placeId", column = "place_id", javaType = UUID.class, jdbcType = JdbcType.VARCHAR),
+            @Result(property = "imageUrl", column = "image_url")
+    })
+    @Select("""
+            <script>
+            SELECT ip.place_id, ai.image_url
+            FROM image_of_place ip
+            JOIN additional_image ai ON ai.image_id = ip.image_id
+            WHERE ip.place_id IN
+            <foreach collection="placeIds" item="placeId" open="(" separator="," close=")">
+                #{placeId}::UUID
+            </foreach>
+            </script>
+            """)
+    List<PlaceImageUrl> findImageUrlsByPlaceIds(@Param("placeIds") Collection<UUID> placeIds);
+
     @Delete("""
             DELETE FROM image_of_place WHERE ip_id = #{ipId}::UUID
             """)
@@ -35,5 +66,5 @@ public interface ImageOfPlaceMapper {
     @Delete("""
             DELETE FROM image_of_place WHERE place_id = #{placeId}::UUID
             """)
-    void deleteByPlaceId(UUID placeId);
+    int deleteByPlaceId(UUID placeId);
 }
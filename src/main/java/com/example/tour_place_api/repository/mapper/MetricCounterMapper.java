@@ -0,0 +1,67 @@
+package com.example.tour_place_api.repository.mapper;
+
+import com.example.tour_place_api.model.entity.MetricCounter;
+import org.apache.ibatis.annotations.*;
+import org.apache.ibatis.type.JdbcType;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.List;
+
+@Mapper
+@Repository
+public interface MetricCounterMapper {
+
+    @Results(id = "metricCounterMapper", value = {
+            @Result(property = "metricName", column = "metric_name"),
+            @Result(property = "value", column = "value", javaType = Long.class, jdbcType = JdbcType.BIGINT)
+    })
+    @Select("""
+            SELECT metric_name, value FROM metric_counters
+            """)
+    List<MetricCounter> findAll();
+
+    @Update("""
+            UPDATE metric_counters SET value = value + #{delta}, updated_at = NOW()
+            WHERE metric_name = #{metricName}
+            """)
+    int addToCounter(@Param("metricName") String metricName, @Param("delta") long delta);
+
+    @Insert("""
+            INSERT INTO metric_counters (metric_name, value, updated_at)
+            VALUES (#{metricName}, #{value}, NOW())
+            ON CONFLICT (metric_name) DO UPDATE SET value = EXCLUDED.value, updated_at = NOW()
+            """)
+    void upsertCounter(@Param("metricName") String metricName, @Param("value") long value);
+
+    // Daily snapshot of every counter; re-running on the same day overwrites that day's row
+    @Insert("""
+            INSERT INTO metric_counter_snapshot (metric_name, snapshot_date, value)
+            SELECT metric_name, CURRENT_DATE, value FROM metric_counters
+            ON CONFLICT (metric_name, snapshot_date) DO UPDATE SET value = EXCLUDED.value
+            """)
+    void snapshotCounters();
+
+    @Insert("""
+            INSERT INTO metric_counter_snapshot (metric_name, snapshot_date, value)
+            VALUES (#{metricName}, #{snapshotDate}, #{value})
+            ON CONFLICT (metric_name, snapshot_date) DO NOTHING
+            """)
+    void insertSnapshotIfAbsent(@Param("metricName") String metricName,
+                                @Param("snapshotDate") LocalDate snapshotDate,
+                                @Param("value") long value);
+
+    // Latest snapshot per metric taken on or before the given date
+    @ResultMap("metricCounterMapper")
+    @Select("""
+            SELECT DISTINCT ON (metric_name) metric_name, value
+            FROM metric_counter_snapshot
+            WHERE snapshot_date <= #{date}
+            ORDER BY metric_name, snapshot_date DESC
+            """)
+    List<MetricCounter> findSnapshotsOnOrBefore(@Param("date") LocalDate date);
+
+    @Delete("""
+            DELETE FROM metric_counter_snapshot WHERE snapshot_date < #{date}
+            """)
+    void deleteSnapshotsBefore(@Param("date") LocalDate date);
+}
@@ -2,8 +2,10 @@ package com.example.tour_place_api.repository.mapper;
 
 import com.example.tour_place_api.model.entity.Place;
 import org.apache.ibatis.annotations.*;
+import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.type.JdbcType;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 import java.util.UUID;
@@ -12,9 +14,15 @@ import java.util.UUID;
 @Repository
 public interface PlaceMapper {
     
+    // Every statement that changes a place takes the next catalog version in the same statement (delete takes it
+    // just before); see catalog_state
     @Insert("""
-            INSERT INTO place (place_id, place_name, description, main_image, lat, longitude, created_at, updated_at)
-            VALUES (#{placeId}::UUID, #{placeName}, #{description}, #{mainImage}, #{lat}, #{longitude}, NOW(), NOW())
+            WITH bumped AS (
+                UPDATE catalog_state SET version = version + 1 WHERE id = 1 RETURNING version
+            )
+            INSERT INTO place (place_id, place_name, description, main_image, lat, longitude, catalog_version, created_at, updated_at)
+            VALUES (#{placeId}::UUID, #{placeName}, #{description}, #{mainImage}, #{lat}, #{longitude},
+                    (SELECT version FROM bumped), NOW(), NOW())
             """)
     void insert(Place place);
 
@@ -25,6 +33,8 @@ public interface PlaceMapper {
             @Result(property = "mainImage", column = "main_image"),
             @Result(property = "lat", column = "lat"),
             @Result(property = "longitude", column = "longitude"),
+            @Result(property = "favoriteCount", column = "favorite_count"),
+            @Result(property = "catalogVersion", column = "catalog_version"),
             @Result(property = "createdAt", column = "created_at"),
             @Result(property = "updatedAt", column = "updated_at")
     })
@@ -40,13 +50,72 @@ public interface PlaceMapper {
     List<Place> findAll();
 
     @ResultMap("placeMapper")
+    // Rows are fetched fetchSize at a time; the cursor must be consumed inside a transaction
+    @Options(fetchSize = 500)
     @Select("""
-            SELECT p.* FROM place p
-            LEFT JOIN favorite f ON p.place_id = f.place_id
-            GROUP BY p.place_id
-            ORDER BY COUNT(f.fav_id) DESC, p.created_at DESC
+            SELECT * FROM place ORDER BY created_at, place_id
             """)
-    List<Place> findAllOrderByFavoriteCount();
+    Cursor<Place> streamAll();
+
+    @ResultMap("placeMapper")
+    // Same orderings as findAll and findAllOrderByFavoriteCount, read fetchSize rows at a time
+    @Options(fetchSize = 500)
+    @Select("""
+            <script>
+            SELECT * FROM place
+            <choose>
+                <when test="orderByFavorites">ORDER BY favorite_count DESC, created_at DESC</when>
+                <otherwise>ORDER BY created_at DESC</otherwise>
+            </choose>
+            </script>
+            """)
+    Cursor<Place> streamListing(@Param("orderByFavorites") boolean orderByFavorites);
+
+    @ResultMap("placeMapper")
+    // Index scan on idx_place_favorite_count; limit is optional so the full listing still works
+    @Select("""
+            <script>
+            SELECT * FROM place
+            ORDER BY favorite_count DESC, created_at DESC
+            <if test="limit != null">
+                LIMIT #{limit} OFFSET #{offset}
+            </if>
+            </script>
+            """)
+    List<Place> findAllOrderByFavoriteCount(@Param("limit") Integer limit, @Param("offset") int offset);
+
+    // Repairs drift, e.g. favorites removed by the cascade when a user is deleted.
+    // Each repaired place gets its own catalog version so delta pages can split between any two places
+    @Update("""
+            WITH drifted AS (
+                SELECT p2.place_id, COUNT(f.fav_id)::INTEGER AS actual,
+                       ROW_NUMBER() OVER (ORDER BY p2.place_id) AS n
+                FROM place p2
+                LEFT JOIN favorite f ON f.place_id = p2.place_id
+                GROUP BY p2.place_id
+                HAVING COUNT(f.fav_id) <> p2.favorite_count
+            ),
+            bumped AS (
+                UPDATE catalog_state SET version = version + (SELECT COUNT(*) FROM drifted)
+                WHERE id = 1 AND EXISTS (SELECT 1 FROM drifted)
+                RETURNING version - (SELECT COUNT(*) FROM drifted) AS base_version
+            )
+            UPDATE place p SET favorite_count = d.actual, catalog_version = (SELECT base_version FROM bumped) + d.n
+            FROM drifted d
+            WHERE p.place_id = d.place_id
+            """)
+    int reconcileFavoriteCounts();
+
+    @ResultMap("placeMapper")
+    @Select("""
+            <script>
+            SELECT * FROM place WHERE place_id IN
+            <foreach collection="placeIds" item="placeId" open="(" separator="," close=")">
+                #{placeId}::UUID
+            </foreach>
+            </script>
+            """)
+    List<Place> findByIds(@Param("placeIds") Collection<UUID> placeIds);
 
     @ResultMap("placeMapper")
     @Select("""
@@ -56,24 +125,61 @@ public interface PlaceMapper {
 
     @ResultMap("placeMapper")
     @Select("""
+            WITH bumped AS (
+                UPDATE catalog_state SET version = version + 1 WHERE id = 1 RETURNING version
+            )
             UPDATE place SET place_name = #{place.placeName}, description = #{place.description},
                             main_image = #{place.mainImage}, lat = #{place.lat}, longitude = #{place.longitude},
-                            updated_at = NOW()
+                            catalog_version = (SELECT version FROM bumped), updated_at = NOW()
             WHERE place_id = #{place.placeId}::UUID
             RETURNING *
             """)
     Optional<Place> update(@Param("place") Place place);
 
+    // Leaves a tombstone so delta sync can tell clients the place is gone. The version comes from
+    // CatalogMapper.nextVersion() in the same transaction: a CTE here could lock the place row before
+    // catalog_state, the reverse of every other writer
     @Delete("""
-            DELETE FROM place WHERE place_id = #{placeId}::UUID
+            WITH deleted AS (
+                DELETE FROM place WHERE place_id = #{placeId}::UUID RETURNING place_id
+            )
+            INSERT INTO place_tombstone (place_id, catalog_version, deleted_at)
+            SELECT place_id, #{catalogVersion}, NOW() FROM deleted
+            ON CONFLICT (place_id) DO UPDATE SET catalog_version = EXCLUDED.catalog_version, deleted_at = EXCLUDED.deleted_at
+            """)
+    void delete(@Param("placeId") UUID placeId, @Param("catalogVersion") long catalogVersion);
+
+    // For changes that live in other tables, e.g. attached images
+    @Update("""
+            WITH bumped AS (
+                UPDATE catalog_state SET version = version + 1 WHERE id = 1 RETURNING version
+            )
+            UPDATE place SET catalog_version = (SELECT version FROM bumped)
+            WHERE place_id = #{placeId}::UUID
+            """)
+    void bumpCatalogVersion(UUID placeId);
+
+    @ResultMap("placeMapper")
+    // Served from idx_place_catalog_version
+    @Select("""
+            SELECT * FROM place
+            WHERE catalog_version > #{sinceVersion}
+            ORDER BY catalog_version
+            LIMIT #{limit}
             """)
-    void delete(UUID placeId);
+    List<Place> findChangedSince(@Param("sinceVersion") long sinceVersion, @Param("limit") int limit);
 
     @Select("""
             SELECT COUNT(*) FROM place
             """)
     int count();
 
+    // Catalog version of the place's last change; null when the place does not exist
+    @Select("""
+            SELECT catalog_version FROM place WHERE place_id = #{placeId}::UUID
+            """)
+    Long findPlaceVersion(UUID placeId);
+
     @ResultMap("placeMapper")
     @Select("""
             SELECT *, 
@@ -0,0 +1,95 @@
+package com.example.tour_place_api.repository.mapper;
+
+import com.example.tour_place_api.model.entity.PlaceSignal;
+import com.example.tour_place_api.model.entity.PlaceSimilarity;
+import com.example.tour_place_api.model.response.RecommendedPlaceResponse;
+import org.apache.ibatis.annotations.*;
+import org.apache.ibatis.type.JdbcType;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+import java.util.UUID;
+
+@Mapper
+@Repository
+public interface PlaceSimilarityMapper {
+
+    // One row per (user, place) pair with the weights of every signal the user gave that place.
+    // Only positive reviews count as interest.
+    @Results(id = "placeSignalMapper", value = {
+            @Result(property = "userId", column = "user_id", javaType = UUID.class, jdbcType = JdbcType.VARCHAR),
+            @Result(property = "placeId", column = "place_id", javaType = UUID.class, jdbcType = JdbcType.VARCHAR),
+            @Result(property = "weight", column = "weight")
+    })
+    @Select("""
+            SELECT user_id, place_id, SUM(weight) AS weight
+            FROM (
+                SELECT user_id, place_id, #{favoriteWeight}::DOUBLE PRECISION AS weight FROM favorite
+                UNION ALL
+                SELECT user_id, place_id, #{reviewWeight}::DOUBLE PRECISION FROM review WHERE rating >= 4
+                UNION ALL
+                SELECT user_id, place_id, #{searchWeight}::DOUBLE PRECISION FROM search_history
+            ) signals
+            GROUP BY user_id, place_id
+            """)
+    List<PlaceSignal> findSignals(@Param("favoriteWeight") double favoriteWeight,
+                                  @Param("reviewWeight") double reviewWeight,
+                                  @Param("searchWeight") double searchWeight);
+
+    @Delete("""
+            DELETE FROM place_similarity
+            """)
+    void deleteAll();
+
+    // Pairs involving a place deleted while the model was being built are skipped
+    @Insert("""
+            <script>
+            INSERT INTO place_similarity (place_id, similar_place_id, score)
+            SELECT incoming.place_id, incoming.similar_place_id, incoming.score
+            FROM (VALUES
+                <foreach collection="similarities" item="similarity" separator=",">
+                    (#{similarity.placeId}::UUID, #{similarity.similarPlaceId}::UUID, #{similarity.score}::DOUBLE PRECISION)
+                </foreach>
+            ) AS incoming (place_id, similar_place_id, score)
+            WHERE EXISTS (SELECT 1 FROM place p WHERE p.place_id = incoming.place_id)
+              AND EXISTS (SELECT 1 FROM place p WHERE p.place_id = incoming.similar_place_id)
+            </script>
+            """)
+    void insertBatch(@Param("similarities") List<PlaceSimilarity> similarities);
+
+    @Results(id = "recommendedPlaceMapper", value = {
+            @Result(property = "placeId", column = "place_id", javaType = UUID.class, jdbcType = JdbcType.VARCHAR),
+            @Result(property = "placeName", column = "place_name"),
+            @Result(property = "mainImage", column = "main_image"),
+            @Result(property = "score", column = "score")
+    })
+    @Select("""
+            SELECT p.place_id, p.place_name, p.main_image, s.score
+            FROM place_similarity s
+            JOIN place p ON p.place_id = s.similar_place_id
+            WHERE s.place_id = #{placeId}::UUID
+            ORDER BY s.score DESC
+            LIMIT #{limit}
+            """)
+    List<RecommendedPlaceResponse> findSimilar(@Param("placeId") UUID placeId, @Param("limit") int limit);
+
+    // Neighbors of everything the user interacted with, summed, excluding places they already know
+    @ResultMap("recommendedPlaceMapper")
+    @Select("""
+            WITH seen AS (
+                SELECT place_id FROM favorite WHERE user_id = #{userId}::UUID
+                UNION
+                SELECT place_id FROM review WHERE user_id = #{userId}::UUID AND rating >= 4
+                UNION
+                SELECT place_id FROM search_history WHERE user_id = #{userId}::UUID
+            )
+            SELECT p.place_id, p.place_name, p.main_image, SUM(s.score) AS score
+            FROM place_similarity s
+            JOIN seen ON seen.place_id = s.place_id
+            JOIN place p ON p.place_id = s.similar_place_id
+            WHERE s.similar_place_id NOT IN (SELECT place_id FROM seen)
+            GROUP BY p.place_id, p.place_name, p.main_image
+            ORDER BY score DESC
+            LIMIT #{limit}
+            """)
+    List<RecommendedPlaceResponse> findRecommendedForUser(@Param("userId") UUID userId, @Param("limit") int limit);
+}
@@ -0,0 +1,46 @@
+package com.example.tour_place_api.repository.mapper;
+
+import com.example.tour_place_api.model.entity.PlaceTrendingScore;
+import org.apache.ibatis.annotations.*;
+import org.apache.ibatis.type.JdbcType;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Mapper
+@Repository
+public interface PlaceTrendingMapper {
+
+    @Results(id = "placeTrendingScoreMapper", value = {
+            @Result(property = "placeId", column = "place_id", javaType = UUID.class, jdbcType = JdbcType.VARCHAR),
+            @Result(property = "score", column = "score"),
+            @Result(property = "updatedAt", column = "updated_at")
+    })
+    @Select("""
+            SELECT place_id, score, updated_at FROM place_trending_score
+            """)
+    List<PlaceTrendingScore> findAll();
+
+    // Places deleted since the scores were taken are skipped rather than failing the batch
+    @Insert("""
+            <script>
+            INSERT INTO place_trending_score (place_id, score, updated_at)
+            SELECT incoming.place_id, incoming.score, incoming.updated_at
+            FROM (VALUES
+                <foreach collection="scores" item="score" separator=",">
+                    (#{score.placeId}::UUID, #{score.score}::DOUBLE PRECISION, #{score.updatedAt}::TIMESTAMP)
+                </foreach>
+            ) AS incoming (place_id, score, updated_at)
+            WHERE EXISTS (SELECT 1 FROM place p WHERE p.place_id = incoming.place_id)
+            ON CONFLICT (place_id) DO UPDATE SET score = EXCLUDED.score, updated_at = EXCLUDED.updated_at
+            </script>
+            """)
+    void upsertBatch(@Param("scores") List<PlaceTrendingScore> scores);
+
+    // Rows not rewritten by the latest checkpoint have decayed away or belong to deleted places
+    @Delete("""
+            DELETE FROM place_trending_score WHERE updated_at < #{checkpointAt}
+            """)
+    int deleteOlderThan(@Param("checkpointAt") LocalDateTime checkpointAt);
+}
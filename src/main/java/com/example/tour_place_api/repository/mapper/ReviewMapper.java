@@ -18,6 +18,23 @@ public interface ReviewMapper {
             """)
     void insert(Review review);
 
+    // Changes whenever the place changes, a review of it is added, updated or deleted, or a reviewer's
+    // profile (shown with each review) changes. No row, so null, when the place does not exist
+    @Select("""
+            SELECT concat_ws(':', p.catalog_version, r.review_count, r.review_micros, r.reviewer_micros)
+            FROM place p
+            CROSS JOIN LATERAL (
+                SELECT COUNT(*) AS review_count,
+                       COALESCE((EXTRACT(EPOCH FROM MAX(rv.updated_at)) * 1000000)::BIGINT, 0) AS review_micros,
+                       COALESCE((EXTRACT(EPOCH FROM MAX(u.updated_at)) * 1000000)::BIGINT, 0) AS reviewer_micros
+                FROM review rv
+                JOIN users u ON u.user_id = rv.user_id
+                WHERE rv.place_id = p.place_id
+            ) r
+            WHERE p.place_id = #{placeId}::UUID
+            """)
+    String findPlaceReviewsVersion(UUID placeId);
+
     @Results(id = "reviewMapper", value = {
             @Result(property = "reviewId", column = "review_id", javaType = UUID.class, jdbcType = JdbcType.VARCHAR),
             @Result(property = "userId", column = "user_id", javaType = UUID.class, jdbcType = JdbcType.VARCHAR),
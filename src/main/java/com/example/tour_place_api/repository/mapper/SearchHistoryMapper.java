@@ -1,10 +1,12 @@
 package com.example.tour_place_api.repository.mapper;
 
 import com.example.tour_place_api.model.entity.SearchHistory;
+import com.example.tour_place_api.model.response.SearchHistoryResponse;
 import org.apache.ibatis.annotations.*;
 import org.apache.ibatis.type.JdbcType;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -19,33 +21,130 @@ public interface SearchHistoryMapper {
             """)
     void insert(SearchHistory searchHistory);
 
-    @Results(id = "searchHistoryMapper", value = {
+    // Records a search in one statement: inserts the (user, place) pair or bumps updated_at if it exists,
+    // trims the user's history to the newest maxPerUser entries and returns the row with the place fields.
+    // Empty when the place doesn't exist (nothing is written or trimmed then).
+    @Results(id = "searchHistoryResponseMapper", value = {
             @Result(property = "searchId", column = "search_id", javaType = UUID.class, jdbcType = JdbcType.VARCHAR),
             @Result(property = "userId", column = "user_id", javaType = UUID.class, jdbcType = JdbcType.VARCHAR),
             @Result(property = "placeId", column = "place_id", javaType = UUID.class, jdbcType = JdbcType.VARCHAR),
+            @Result(property = "placeName", column = "place_name"),
+            @Result(property = "mainImage", column = "main_image"),
             @Result(property = "createdAt", column = "created_at"),
             @Result(property = "updatedAt", column = "updated_at")
     })
     @Select("""
-            SELECT * FROM search_history WHERE search_id = #{searchId}::UUID
+            WITH upserted AS (
+                INSERT INTO search_history (search_id, user_id, place_id, created_at, updated_at)
+                SELECT #{searchId}::UUID, #{userId}::UUID, place_id, NOW(), NOW()
+                FROM place WHERE place_id = #{placeId}::UUID
+                ON CONFLICT (user_id, place_id) DO UPDATE SET updated_at = NOW()
+                RETURNING search_id, user_id, place_id, created_at, updated_at
+            ),
+            trimmed AS (
+                DELETE FROM search_history
+                WHERE search_id IN (
+                    SELECT search_id FROM search_history
+                    WHERE user_id = #{userId}::UUID AND place_id != #{placeId}::UUID
+                    ORDER BY updated_at DESC
+                    OFFSET #{maxPerUser} - 1
+                )
+                AND EXISTS (SELECT 1 FROM upserted)
+            )
+            SELECT u.search_id, u.user_id, u.place_id, p.place_name, p.main_image, u.created_at, u.updated_at
+            FROM upserted u
+            JOIN place p ON p.place_id = u.place_id
             """)
-    Optional<SearchHistory> findById(UUID searchId);
+    Optional<SearchHistoryResponse> upsert(@Param("searchId") UUID searchId,
+                                           @Param("userId") UUID userId,
+                                           @Param("placeId") UUID placeId,
+                                           @Param("maxPerUser") int maxPerUser);
+
+    // Place fields for a search plus the user's existing entry for that place, if any (search_id is null otherwise).
+    // Empty when the place doesn't exist
+    @ResultMap("searchHistoryResponseMapper")
+    @Select("""
+            SELECT sh.search_id, #{userId}::UUID AS user_id, p.place_id, p.place_name, p.main_image, sh.created_at, sh.updated_at
+            FROM place p
+            LEFT JOIN search_history sh ON sh.place_id = p.place_id AND sh.user_id = #{userId}::UUID
+            WHERE p.place_id = #{placeId}::UUID
+            """)
+    Optional<SearchHistoryResponse> findForSearch(@Param("userId") UUID userId, @Param("placeId") UUID placeId);
+
+    // Batch write from the write-behind buffer; entries for places deleted in the meantime are skipped.
+    // New rows take the searchId already handed out for the buffered entry, existing rows keep theirs
+    @Insert("""
+            <script>
+            INSERT INTO search_history (search_id, user_id, place_id, created_at, updated_at)
+            SELECT incoming.search_id, incoming.user_id, incoming.place_id, incoming.searched_at, incoming.searched_at
+            FROM (VALUES
+                <foreach collection="histories" item="history" separator=",">
+                    (#{history.searchId}::UUID, #{history.userId}::UUID, #{history.placeId}::UUID, #{history.updatedAt}::TIMESTAMP)
+                </foreach>
+            ) AS incoming (search_id, user_id, place_id, searched_at)
+            WHERE EXISTS (SELECT 1 FROM place p WHERE p.place_id = incoming.place_id)
+            ON CONFLICT (user_id, place_id) DO UPDATE
+                SET updated_at = GREATEST(search_history.updated_at, EXCLUDED.updated_at)
+            </script>
+            """)
+    void upsertBatch(@Param("histories") List<SearchHistory> histories);
+
+    @Delete("""
+            <script>
+            DELETE FROM search_history
+            WHERE search_id IN (
+                SELECT search_id FROM (
+                    SELECT search_id,
+                           ROW_NUMBER() OVER (PARTITION BY user_id ORDER BY updated_at DESC) AS position
+                    FROM search_history
+                    WHERE user_id IN
+                    <foreach collection="userIds" item="userId" open="(" separator="," close=")">
+                        #{userId}::UUID
+                    </foreach>
+                ) ranked
+                WHERE ranked.position > #{maxPerUser}
+            )
+            </script>
+            """)
+    int trimUsersToNewest(@Param("userIds") Collection<UUID> userIds, @Param("maxPerUser") int maxPerUser);
+
+    // Nightly backstop for histories that grew before trimming on write existed
+    @Delete("""
+            DELETE FROM search_history
+            WHERE search_id IN (
+                SELECT search_id FROM (
+                    SELECT search_id,
+                           ROW_NUMBER() OVER (PARTITION BY user_id ORDER BY updated_at DESC) AS position
+                    FROM search_history
+                ) ranked
+                WHERE ranked.position > #{maxPerUser}
+            )
+            """)
+    int trimToNewestPerUser(@Param("maxPerUser") int maxPerUser);
 
-    @ResultMap("searchHistoryMapper")
+    @Results(id = "searchHistoryMapper", value = {
+            @Result(property = "searchId", column = "search_id", javaType = UUID.class, jdbcType = JdbcType.VARCHAR),
+            @Result(property = "userId", column = "user_id", javaType = UUID.class, jdbcType = JdbcType.VARCHAR),
+            @Result(property = "placeId", column = "place_id", javaType = UUID.class, jdbcType = JdbcType.VARCHAR),
+            @Result(property = "createdAt", column = "created_at"),
+            @Result(property = "updatedAt", column = "updated_at")
+    })
     @Select("""
-            SELECT * FROM search_history 
-            WHERE user_id = #{userId}::UUID AND place_id = #{placeId}::UUID
+            SELECT * FROM search_history WHERE search_id = #{searchId}::UUID
             """)
-    Optional<SearchHistory> findByUserAndPlace(UUID userId, UUID placeId);
+    Optional<SearchHistory> findById(UUID searchId);
 
-    @ResultMap("searchHistoryMapper")
+    // Latest entries with the place fields joined in, so one query serves the whole list
+    @ResultMap("searchHistoryResponseMapper")
     @Select("""
-            SELECT * FROM search_history 
-            WHERE user_id = #{userId}::UUID 
-            ORDER BY updated_at DESC 
-            LIMIT 10
+            SELECT sh.search_id, sh.user_id, sh.place_id, p.place_name, p.main_image, sh.created_at, sh.updated_at
+            FROM search_history sh
+            JOIN place p ON p.place_id = sh.place_id
+            WHERE sh.user_id = #{userId}::UUID
+            ORDER BY sh.updated_at DESC
+            LIMIT #{limit}
             """)
-    List<SearchHistory> findLatestByUserId(UUID userId);
+    List<SearchHistoryResponse> findLatestResponsesByUserId(@Param("userId") UUID userId, @Param("limit") int limit);
 
     @Update("""
             UPDATE search_history 
@@ -54,13 +153,6 @@ public interface SearchHistoryMapper {
             """)
     void updateTimestamp(UUID searchId);
 
-    @Update("""
-            UPDATE search_history 
-            SET updated_at = NOW() 
-            WHERE user_id = #{userId}::UUID AND place_id = #{placeId}::UUID
-            """)
-    void updateTimestampByUserAndPlace(UUID userId, UUID placeId);
-
     @Delete("""
             DELETE FROM search_history WHERE search_id = #{searchId}::UUID
             """)
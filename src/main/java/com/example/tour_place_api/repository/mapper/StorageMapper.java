@@ -0,0 +1,90 @@
+package com.example.tour_place_api.repository.mapper;
+
+import org.apache.ibatis.annotations.*;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Mapper
+@Repository
+public interface StorageMapper {
+
+    // Every image URL still referenced by the database (place main images, attached place images, profile images)
+    @Select("""
+            SELECT main_image FROM place WHERE main_image IS NOT NULL AND main_image != ''
+            UNION
+            SELECT ai.image_url FROM additional_image ai
+            JOIN image_of_place iop ON ai.image_id = iop.image_id
+            UNION
+            SELECT profile_image FROM users WHERE profile_image IS NOT NULL AND profile_image != ''
+            """)
+    List<String> findReferencedImageUrls();
+
+    // Content-hash index: the first upload of some content claims the hash, later uploads
+    // of the same content get the existing object name back and add a reference to it.
+    // last_registered_at restarts the cleanup grace period for the reused object.
+    // Writes through @Select, so flushCache keeps a repeat call in the same session from returning the cached row
+    @Select("""
+            INSERT INTO stored_object (content_hash, object_name, ref_count, created_at, last_registered_at)
+            VALUES (#{contentHash}, #{objectName}, 1, NOW(), NOW())
+            ON CONFLICT (content_hash) DO UPDATE
+            SET ref_count = stored_object.ref_count + 1, last_registered_at = NOW()
+            RETURNING object_name
+            """)
+    @Options(flushCache = Options.FlushCachePolicy.TRUE)
+    String registerObject(@Param("contentHash") String contentHash, @Param("objectName") String objectName);
+
+    // Returns the remaining reference count, or null when the object is not in the index. Flushes the session
+    // cache like registerObject: releasing the same object twice in one transaction must decrement twice
+    @Select("""
+            UPDATE stored_object SET ref_count = ref_count - 1
+            WHERE object_name = #{objectName}
+            RETURNING ref_count
+            """)
+    @Options(flushCache = Options.FlushCachePolicy.TRUE)
+    Integer releaseObject(@Param("objectName") String objectName);
+
+    @Delete("""
+            DELETE FROM stored_object WHERE object_name = #{objectName} AND ref_count <= 0
+            """)
+    int deleteUnreferencedObject(@Param("objectName") String objectName);
+
+    // Only index entries without references and outside the grace period; entries that are still
+    // referenced, or were just handed out again by a deduplicated upload, stay and protect their object
+    @Delete("""
+            <script>
+            DELETE FROM stored_object
+            WHERE ref_count &lt;= 0 AND last_registered_at &lt; #{registeredBefore}
+            AND object_name IN
+            <foreach collection="objectNames" item="objectName" open="(" separator="," close=")">
+                #{objectName}
+            </foreach>
+            </script>
+            """)
+    void deleteByObjectNames(@Param("objectNames") List<String> objectNames,
+                             @Param("registeredBefore") LocalDateTime registeredBefore);
+
+    @Select("""
+            <script>
+            SELECT object_name FROM stored_object WHERE object_name IN
+            <foreach collection="objectNames" item="objectName" open="(" separator="," close=")">
+                #{objectName}
+            </foreach>
+            </script>
+            """)
+    List<String> findIndexedObjectNames(@Param("objectNames") List<String> objectNames);
+
+    // Same predicate as deleteByObjectNames, negated, for dry runs
+    @Select("""
+            <script>
+            SELECT object_name FROM stored_object
+            WHERE (ref_count &gt; 0 OR last_registered_at &gt;= #{registeredBefore})
+            AND object_name IN
+            <foreach collection="objectNames" item="objectName" open="(" separator="," close=")">
+                #{objectName}
+            </foreach>
+            </script>
+            """)
+    List<String> findProtectedObjectNames(@Param("objectNames") List<String> objectNames,
+                                          @Param("registeredBefore") LocalDateTime registeredBefore);
+}
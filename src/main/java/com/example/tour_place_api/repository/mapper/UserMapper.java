@@ -2,8 +2,10 @@ package com.example.tour_place_api.repository.mapper;
 
 import com.example.tour_place_api.model.entity.User;
 import org.apache.ibatis.annotations.*;
+import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.type.JdbcType;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.List;
 import java.util.UUID;
@@ -47,11 +49,62 @@ public interface UserMapper {
     List<User> findAll();
 
     @ResultMap("userMapper")
+    // Listing only; password is left out so hashes aren't loaded for every user
     @Select("""
-            SELECT * FROM users WHERE role = 'user'
+            SELECT user_id, full_name, email, status, role, profile_image, created_at, updated_at
+            FROM users WHERE role = 'user'
+            ORDER BY created_at DESC, user_id DESC
             """)
     List<User> findAllRegularUsers();
 
+    @ResultMap("userMapper")
+    // Streaming variant of findAllRegularUsers
+    @Options(fetchSize = 500)
+    @Select("""
+            SELECT user_id, full_name, email, status, role, profile_image, created_at, updated_at
+            FROM users WHERE role = 'user'
+            """)
+    Cursor<User> streamRegularUsers();
+
+    // Keyset page of regular users older than the (created_at, user_id) cursor; never selects password.
+    // emailPrefix and search arrive with LIKE wildcards already escaped
+    @ResultMap("userMapper")
+    @Select("""
+            <script>
+            SELECT user_id, full_name, email, status, role, profile_image, created_at, updated_at
+            FROM users
+            WHERE role = 'user'
+            <if test="beforeCreatedAt != null">
+                AND (created_at, user_id) &lt; (#{beforeCreatedAt}, #{beforeUserId}::UUID)
+            </if>
+            <if test="status != null">
+                AND status = #{status}
+            </if>
+            <if test="createdFrom != null">
+                AND created_at &gt;= #{createdFrom}
+            </if>
+            <if test="createdTo != null">
+                AND created_at &lt; #{createdTo}
+            </if>
+            <if test="emailPrefix != null">
+                AND email ILIKE #{emailPrefix} || '%'
+            </if>
+            <if test="search != null">
+                AND (email ILIKE '%' || #{search} || '%' OR full_name ILIKE '%' || #{search} || '%')
+            </if>
+            ORDER BY created_at DESC, user_id DESC
+            LIMIT #{limit}
+            </script>
+            """)
+    List<User> findRegularUsersBefore(@Param("beforeCreatedAt") LocalDateTime beforeCreatedAt,
+                                      @Param("beforeUserId") UUID beforeUserId,
+                                      @Param("status") Boolean status,
+                                      @Param("createdFrom") LocalDateTime createdFrom,
+                                      @Param("createdTo") LocalDateTime createdTo,
+                                      @Param("emailPrefix") String emailPrefix,
+                                      @Param("search") String search,
+                                      @Param("limit") int limit);
+
     @ResultMap("userMapper")
     @Select("""
             UPDATE users SET full_name = #{user.fullName}, email = #{user.email}, password = #{user.password},
@@ -71,6 +124,11 @@ public interface UserMapper {
             """)
     boolean existsByEmail(String email);
 
+    @Select("""
+            SELECT email FROM users WHERE user_id = #{userId}::UUID
+            """)
+    String findEmailById(UUID userId);
+
     @ResultMap("userMapper")
     @Select("""
             UPDATE users SET status = #{status}, updated_at = NOW()
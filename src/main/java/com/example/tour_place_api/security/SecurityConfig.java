@@ -41,14 +41,18 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.POST, "/api/v1/auth/register", "/api/v1/auth/verify-otp", "/api/v1/auth/resend-otp", "/api/v1/auth/login", "/api/v1/auth/forgot-password", "/api/v1/auth/reset-password").permitAll()
                 // Public OTP status endpoint
                 .requestMatchers(HttpMethod.POST, "/api/v1/auth/otp-status").permitAll()
+                // Place export streams the whole catalog, admins only
+                .requestMatchers(HttpMethod.GET, "/api/v1/places/export").hasRole("ADMIN")
                 // Place GET endpoints - allow both authenticated and unauthenticated access
                 // Authentication is optional: if provided, users see their favorite status
                 .requestMatchers(HttpMethod.GET, "/api/v1/places/**").permitAll()
                 // Require ROLE_ADMIN for POST, PUT, DELETE place endpoints
                 .requestMatchers(HttpMethod.POST, "/api/v1/places").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.POST, "/api/v1/places/import").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.PUT, "/api/v1/places/**").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.DELETE, "/api/v1/places/**").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.POST, "/api/v1/places/*/images").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.POST, "/api/v1/places/*/images/upload").hasRole("ADMIN")
                 // Public review endpoints (GET only)
                 .requestMatchers(HttpMethod.GET, "/api/v1/reviews/**").permitAll()
                 // Require authentication for POST, PUT, DELETE review endpoints
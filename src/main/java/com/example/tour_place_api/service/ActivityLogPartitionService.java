@@ -0,0 +1,114 @@
+package com.example.tour_place_api.service;
+
+import com.example.tour_place_api.repository.mapper.DashboardMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+@Slf4j
+@Service
+public class ActivityLogPartitionService {
+    private static final String PARTITION_PREFIX = "activity_log_p";
+    private static final String DEFAULT_PARTITION = "activity_log_default";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    @Autowired
+    private DashboardMapper dashboardMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${activity-log.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${activity-log.partitions.retention-months:12}")
+    private int retentionMonths;
+
+    @Value("${activity-log.partitions.retention-action:DROP}")
+    private String retentionAction;
+
+    // Also on startup: after a long downtime the current month may have no partition yet
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${activity-log.partitions.maintenance-cron:0 15 2 * * *}")
+    public void scheduledMaintenance() {
+        try {
+            maintainPartitions();
+        } catch (RuntimeException e) {
+            log.warn("Activity log partition maintenance failed: {}", e.getMessage());
+        }
+    }
+
+    public synchronized void maintainPartitions() {
+        YearMonth currentMonth = YearMonth.now();
+        List<String> existing = dashboardMapper.findActivityLogPartitions();
+
+        // Create upcoming months first so inserts never fall through to the default partition
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = currentMonth.plusMonths(i);
+            String partition = PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+            if (!existing.contains(partition)) {
+                createPartition(partition, month, existing.contains(DEFAULT_PARTITION));
+            }
+        }
+
+        YearMonth oldestKept = currentMonth.minusMonths(retentionMonths);
+        List<String> partitions = dashboardMapper.findActivityLogPartitions();
+        for (String partition : partitions) {
+            YearMonth month = parsePartitionMonth(partition);
+            if (month == null || !month.isBefore(oldestKept)) {
+                continue;
+            }
+
+            if ("DETACH".equalsIgnoreCase(retentionAction)) {
+                dashboardMapper.detachActivityLogPartition(partition);
+                log.info("Detached expired activity log partition {} for archiving", partition);
+            } else {
+                dashboardMapper.dropActivityLogPartition(partition);
+                log.info("Dropped expired activity log partition {}", partition);
+            }
+        }
+    }
+
+    private void createPartition(String partition, YearMonth month, boolean hasDefaultPartition) {
+        String from = month.atDay(1).toString();
+        String to = month.plusMonths(1).atDay(1).toString();
+        if (!hasDefaultPartition) {
+            dashboardMapper.createActivityLogPartition(partition, from, to);
+            return;
+        }
+
+        // One transaction, so inserts wait on the parent's lock instead of seeing activity_log without a default
+        int moved = transactionTemplate.execute(status -> {
+            dashboardMapper.detachActivityLogDefaultPartition();
+            dashboardMapper.createActivityLogPartition(partition, from, to);
+            int rows = dashboardMapper.moveActivityLogDefaultRows(from, to);
+            dashboardMapper.attachActivityLogDefaultPartition();
+            return rows;
+        });
+        if (moved > 0) {
+            log.info("Moved {} activity log rows from the default partition into {}", moved, partition);
+        }
+    }
+
+    private YearMonth parsePartitionMonth(String partition) {
+        // Only monthly partitions are managed; the default partition and anything else is left alone
+        if (!partition.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
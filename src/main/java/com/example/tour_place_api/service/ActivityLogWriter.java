@@ -0,0 +1,220 @@
+package com.example.tour_place_api.service;
+
+import com.example.tour_place_api.model.entity.ActivityLog;
+import com.example.tour_place_api.model.response.ActivityLogWriterStatsResponse;
+import com.example.tour_place_api.repository.mapper.DashboardMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+// Buffers activity log rows in memory and writes them in multi-row INSERTs from a background thread,
+// so request threads never wait on the activity_log insert
+@Slf4j
+@Service
+public class ActivityLogWriter {
+    public enum OverflowPolicy {
+        // Write the row synchronously on the calling thread (nothing is lost, the request pays the insert)
+        CALLER_RUNS,
+        // Discard the row and count it
+        DROP
+    }
+
+    @Autowired
+    private DashboardMapper dashboardMapper;
+
+    @Value("${activity-log.buffer-capacity:8192}")
+    private int bufferCapacity;
+
+    @Value("${activity-log.batch-size:200}")
+    private int batchSize;
+
+    @Value("${activity-log.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Value("${activity-log.overflow-policy:CALLER_RUNS}")
+    private OverflowPolicy overflowPolicy;
+
+    @Value("${activity-log.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs;
+
+    private RingBuffer buffer;
+    private Thread flusher;
+    private volatile boolean running;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong callerRuns = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong totalFlushNanos = new AtomicLong();
+    private volatile long lastFlushNanos;
+    private volatile long maxFlushNanos;
+
+    @PostConstruct
+    public void start() {
+        buffer = new RingBuffer(bufferCapacity);
+        running = true;
+        flusher = new Thread(this::runFlusher, "activity-log-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // Stop the flusher, then drain whatever is still buffered before the data source goes away
+        running = false;
+        LockSupport.unpark(flusher);
+        flusher.join(shutdownTimeoutMs);
+        while (buffer.size() > 0) {
+            if (flush() == 0) {
+                break;
+            }
+        }
+    }
+
+    public void enqueue(ActivityLog activityLog) {
+        if (buffer.offer(activityLog)) {
+            enqueued.incrementAndGet();
+            if (buffer.size() >= batchSize) {
+                LockSupport.unpark(flusher);
+            }
+            return;
+        }
+
+        if (overflowPolicy == OverflowPolicy.DROP) {
+            dropped.incrementAndGet();
+            return;
+        }
+        callerRuns.incrementAndGet();
+        dashboardMapper.insertActivity(activityLog);
+        written.incrementAndGet();
+    }
+
+    public ActivityLogWriterStatsResponse getStats() {
+        long flushCount = flushes.get();
+        return ActivityLogWriterStatsResponse.builder()
+                .queueDepth((long) buffer.size())
+                .queueCapacity((long) buffer.capacity())
+                .overflowPolicy(overflowPolicy.name())
+                .enqueued(enqueued.get())
+                .written(written.get())
+                .dropped(dropped.get())
+                .failed(failed.get())
+                .callerRuns(callerRuns.get())
+                .flushes(flushCount)
+                .lastFlushLatencyMs(TimeUnit.NANOSECONDS.toMillis(lastFlushNanos))
+                .maxFlushLatencyMs(TimeUnit.NANOSECONDS.toMillis(maxFlushNanos))
+                .averageFlushLatencyMs(flushCount == 0 ? 0.0 : totalFlushNanos.get() / (double) flushCount / 1_000_000.0)
+                .build();
+    }
+
+    private void runFlusher() {
+        long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (running) {
+            // Sleep until the interval passes or a producer signals a full batch
+            if (buffer.size() < batchSize) {
+                LockSupport.parkNanos(flushIntervalNanos);
+            }
+            try {
+                while (flush() == batchSize) {
+                    // Keep draining while full batches are available
+                }
+            } catch (RuntimeException e) {
+                log.warn("Activity log flush failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    // Single consumer: synchronized so the flusher thread and the shutdown drain never poll at the same time
+    private synchronized int flush() {
+        List<ActivityLog> batch = new ArrayList<>(batchSize);
+        ActivityLog activityLog;
+        while (batch.size() < batchSize && (activityLog = buffer.poll()) != null) {
+            batch.add(activityLog);
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        long start = System.nanoTime();
+        try {
+            dashboardMapper.insertActivities(batch);
+            written.addAndGet(batch.size());
+        } catch (RuntimeException e) {
+            failed.addAndGet(batch.size());
+            log.warn("Failed to write {} activity log entries: {}", batch.size(), e.getMessage());
+        }
+
+        long elapsed = System.nanoTime() - start;
+        flushes.incrementAndGet();
+        totalFlushNanos.addAndGet(elapsed);
+        lastFlushNanos = elapsed;
+        if (elapsed > maxFlushNanos) {
+            maxFlushNanos = elapsed;
+        }
+        return batch.size();
+    }
+
+    // Bounded lock-free ring buffer for many producers and a single consumer.
+    // Producers claim a slot by CAS on tail and publish into it; the consumer empties slots in order
+    // and advances head, which is what frees capacity for producers.
+    static class RingBuffer {
+        private final AtomicReferenceArray<ActivityLog> slots;
+        private final int capacity;
+        private final int mask;
+        private final AtomicLong tail = new AtomicLong();
+        private volatile long head;
+
+        RingBuffer(int requestedCapacity) {
+            int size = Integer.highestOneBit(Math.max(requestedCapacity, 2) - 1) << 1;
+            this.slots = new AtomicReferenceArray<>(size);
+            this.capacity = size;
+            this.mask = size - 1;
+        }
+
+        boolean offer(ActivityLog activityLog) {
+            long claimed;
+            do {
+                claimed = tail.get();
+                if (claimed - head >= capacity) {
+                    return false;
+                }
+            } while (!tail.compareAndSet(claimed, claimed + 1));
+
+            slots.lazySet((int) (claimed & mask), activityLog);
+            return true;
+        }
+
+        ActivityLog poll() {
+            long current = head;
+            int index = (int) (current & mask);
+            // null means empty, or the producer that claimed this slot has not published yet
+            ActivityLog activityLog = slots.get(index);
+            if (activityLog == null) {
+                return null;
+            }
+            slots.lazySet(index, null);
+            head = current + 1;
+            return activityLog;
+        }
+
+        int size() {
+            return (int) Math.max(0, tail.get() - head);
+        }
+
+        int capacity() {
+            return capacity;
+        }
+    }
+}
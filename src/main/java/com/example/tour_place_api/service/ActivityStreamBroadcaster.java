@@ -0,0 +1,156 @@
+package com.example.tour_place_api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Fans dashboard events out to the open SSE connections. Each subscriber has its own bounded queue drained
+// on a shared pool, so one slow client never delays the publisher or the others; a client whose queue
+// fills up is disconnected and can reconnect.
+@Slf4j
+@Service
+public class ActivityStreamBroadcaster {
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${dashboard.stream.timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    @Value("${dashboard.stream.buffer-size:256}")
+    private int subscriberBufferSize;
+
+    @Value("${dashboard.stream.max-subscribers:200}")
+    private int maxSubscribers;
+
+    private final CopyOnWriteArrayList<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicLong eventIds = new AtomicLong();
+    private final ExecutorService deliveryExecutor =
+            Executors.newFixedThreadPool(4, new CustomizableThreadFactory("dashboard-stream-"));
+
+    @PreDestroy
+    public void shutdown() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        deliveryExecutor.shutdown();
+    }
+
+    public SseEmitter subscribe() {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new RuntimeException("Too many open dashboard streams");
+        }
+
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, subscriberBufferSize);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    public boolean hasSubscribers() {
+        return !subscribers.isEmpty();
+    }
+
+    public void broadcast(String eventName, Object data) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        // Serialize once for all subscribers
+        Set<ResponseBodyEmitter.DataWithMediaType> event;
+        try {
+            event = SseEmitter.event()
+                    .id(String.valueOf(eventIds.incrementAndGet()))
+                    .name(eventName)
+                    .data(objectMapper.writeValueAsString(data), MediaType.APPLICATION_JSON)
+                    .build();
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to serialize dashboard {} event: {}", eventName, e.getMessage());
+            return;
+        }
+
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.queue.offer(event)) {
+                disconnect(subscriber, "buffer full");
+                continue;
+            }
+            scheduleDelivery(subscriber);
+        }
+    }
+
+    // Comment lines keep proxies from closing idle connections and surface clients that went away
+    @Scheduled(fixedDelayString = "${dashboard.stream.heartbeat-interval-ms:15000}")
+    public void sendHeartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.queue.offer(SseEmitter.event().comment("heartbeat").build())) {
+                scheduleDelivery(subscriber);
+            }
+        }
+    }
+
+    private void scheduleDelivery(Subscriber subscriber) {
+        // At most one drain per subscriber at a time keeps its events in order
+        if (subscriber.draining.compareAndSet(false, true)) {
+            deliveryExecutor.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Set<ResponseBodyEmitter.DataWithMediaType> event;
+            while ((event = subscriber.queue.poll()) != null) {
+                subscriber.emitter.send(event);
+            }
+        } catch (IOException | IllegalStateException e) {
+            disconnect(subscriber, e.getMessage());
+            return;
+        } finally {
+            subscriber.draining.set(false);
+        }
+
+        // An event may have been queued after the last poll but before draining was cleared
+        if (!subscriber.queue.isEmpty()) {
+            scheduleDelivery(subscriber);
+        }
+    }
+
+    private void disconnect(Subscriber subscriber, String reason) {
+        if (subscribers.remove(subscriber)) {
+            log.info("Closing dashboard stream: {}", reason);
+            subscriber.queue.clear();
+            subscriber.emitter.complete();
+        }
+    }
+
+    private static class Subscriber {
+        private final SseEmitter emitter;
+        private final Queue<Set<ResponseBodyEmitter.DataWithMediaType>> queue;
+        private final AtomicBoolean draining = new AtomicBoolean(false);
+
+        private Subscriber(SseEmitter emitter, int bufferSize) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+}
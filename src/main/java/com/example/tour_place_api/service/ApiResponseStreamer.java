@@ -0,0 +1,44 @@
+package com.example.tour_place_api.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+// Writes the same JSON as ApiResponse<List<T>>, but each payload element goes to the response as it is
+// produced instead of the whole list being built first. Producers read rows from a MyBatis Cursor.
+@Component
+public class ApiResponseStreamer {
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public <T> StreamingResponseBody streamList(String message, Consumer<Consumer<T>> producer) {
+        return output -> {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(output);
+            generator.writeStartObject();
+            generator.writeBooleanField("success", true);
+            generator.writeStringField("message", message);
+            generator.writeArrayFieldStart("payload");
+            // A failure after the first flush can only truncate the body, which clients see as invalid JSON
+            producer.accept(element -> {
+                try {
+                    generator.writeObject(element);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+            generator.writeObjectField("status", HttpStatus.OK);
+            generator.writeObjectField("timestamp", LocalDateTime.now());
+            generator.writeEndObject();
+            generator.flush();
+        };
+    }
+}
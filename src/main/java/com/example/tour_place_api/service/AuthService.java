@@ -30,6 +30,12 @@ public class AuthService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private MetricCounterService metricCounterService;
+
+    @Autowired
+    private MinioService minioService;
+
     public void registerUser(RegisterRequest request) {
         if (userMapper.existsByEmail(request.getEmail())) {
             throw new RuntimeException("Email already registered");
@@ -65,6 +71,7 @@ public class AuthService {
                     .build();
 
             userMapper.insert(user);
+            metricCounterService.increment(MetricCounterService.USERS);
 
             emailService.sendWelcomeEmail(email, otpData.fullName);
             
@@ -126,6 +133,11 @@ public class AuthService {
             throw new RuntimeException("Failed to update profile image");
         }
 
+        String oldProfileImage = userOptional.get().getProfileImage();
+        if (oldProfileImage != null && !oldProfileImage.equals(profileImageUrl)) {
+            minioService.releaseFile(oldProfileImage);
+        }
+
         return mapToResponse(updatedUserOptional.get());
     }
 
@@ -0,0 +1,106 @@
+package com.example.tour_place_api.service;
+
+import com.example.tour_place_api.model.entity.CatalogState;
+import com.example.tour_place_api.model.entity.Place;
+import com.example.tour_place_api.model.entity.PlaceTombstone;
+import com.example.tour_place_api.model.response.CatalogChangesResponse;
+import com.example.tour_place_api.repository.mapper.CatalogMapper;
+import com.example.tour_place_api.repository.mapper.PlaceMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Incremental client sync: every place change stamps the place (or its tombstone) with the next catalog version,
+// so a client holding version N only needs what is newer than N
+@Slf4j
+@Service
+public class CatalogService {
+    public static final String VERSION_HEADER = "X-Catalog-Version";
+
+    @Autowired
+    private CatalogMapper catalogMapper;
+
+    @Autowired
+    private PlaceMapper placeMapper;
+
+    @Autowired
+    private PlaceService placeService;
+
+    @Value("${catalog.tombstone-retention-days:90}")
+    private int tombstoneRetentionDays;
+
+    public long getCurrentVersion() {
+        return catalogMapper.findState().getVersion();
+    }
+
+    // One snapshot for the version and both queries, so nothing committed between them is skipped
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public CatalogChangesResponse getChangesSince(long sinceVersion, int limit, UUID userId) {
+        if (limit < 1) limit = 1;
+        if (limit > 500) limit = 500;
+
+        CatalogState state = catalogMapper.findState();
+        if (sinceVersion < state.getMinDeltaVersion() || sinceVersion > state.getVersion()) {
+            // Deletions before minDeltaVersion are forgotten, and a version from the future means the catalog was reset
+            return CatalogChangesResponse.builder()
+                    .sinceVersion(sinceVersion)
+                    .version(state.getVersion())
+                    .places(List.of())
+                    .deletedPlaceIds(List.of())
+                    .hasMore(false)
+                    .resyncRequired(true)
+                    .build();
+        }
+
+        // Both lists are ordered by version and every change has its own version;
+        // merge them and keep the first limit changes so the page ends at a single version
+        List<Place> changed = placeMapper.findChangedSince(sinceVersion, limit + 1);
+        List<PlaceTombstone> tombstones = catalogMapper.findTombstonesSince(sinceVersion, limit + 1);
+        List<Place> places = new ArrayList<>();
+        List<UUID> deletedPlaceIds = new ArrayList<>();
+        long lastVersion = sinceVersion;
+        int p = 0;
+        int t = 0;
+        while (places.size() + deletedPlaceIds.size() < limit && (p < changed.size() || t < tombstones.size())) {
+            boolean takePlace = t >= tombstones.size()
+                    || (p < changed.size() && changed.get(p).getCatalogVersion() < tombstones.get(t).getCatalogVersion());
+            if (takePlace) {
+                Place place = changed.get(p++);
+                places.add(place);
+                lastVersion = place.getCatalogVersion();
+            } else {
+                PlaceTombstone tombstone = tombstones.get(t++);
+                deletedPlaceIds.add(tombstone.getPlaceId());
+                lastVersion = tombstone.getCatalogVersion();
+            }
+        }
+        boolean hasMore = p < changed.size() || t < tombstones.size();
+
+        return CatalogChangesResponse.builder()
+                .sinceVersion(sinceVersion)
+                .version(hasMore ? lastVersion : state.getVersion())
+                .places(placeService.mapToResponses(places, userId))
+                .deletedPlaceIds(deletedPlaceIds)
+                .hasMore(hasMore)
+                .resyncRequired(false)
+                .build();
+    }
+
+    @Scheduled(cron = "${catalog.tombstone-prune-cron:0 15 4 * * *}")
+    public void pruneTombstones() {
+        try {
+            catalogMapper.pruneTombstonesBefore(LocalDateTime.now().minusDays(tombstoneRetentionDays));
+        } catch (RuntimeException e) {
+            log.warn("Failed to prune place tombstones: {}", e.getMessage());
+        }
+    }
+}
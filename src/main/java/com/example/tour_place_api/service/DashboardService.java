@@ -1,42 +1,140 @@
 package com.example.tour_place_api.service;
 
 import com.example.tour_place_api.model.entity.ActivityLog;
+import com.example.tour_place_api.model.response.ActivityFeedResponse;
 import com.example.tour_place_api.model.response.DashboardStatsResponse;
 import com.example.tour_place_api.model.response.PlacesOverviewResponse;
 import com.example.tour_place_api.model.response.RecentActivityResponse;
 import com.example.tour_place_api.repository.mapper.DashboardMapper;
+import com.example.tour_place_api.repository.mapper.UserMapper;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class DashboardService {
+    private static final Set<String> ACTIVITY_ACTIONS = Set.of(
+            "PLACE_CREATED", "PLACE_UPDATED", "PLACE_DELETED", "PLACES_IMPORTED", "IMAGE_UPLOADED", "IMAGE_DELETED",
+            "USER_REGISTERED", "USER_ENABLED", "USER_DISABLED", "USER_ROLE_UPDATED");
+    private static final Set<String> ACTIVITY_ENTITY_TYPES = Set.of("PLACE", "USER", "IMAGE");
 
     @Autowired
     private DashboardMapper dashboardMapper;
 
+    @Autowired
+    private MetricCounterService metricCounterService;
+
+    @Autowired
+    private ActivityLogWriter activityLogWriter;
+
+    @Autowired
+    private ActivityStreamBroadcaster activityStreamBroadcaster;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Value("${dashboard.stats.ttl-ms:5000}")
+    private long statsTtlMs;
+
+    @Value("${dashboard.stats.max-stale-ms:60000}")
+    private long statsMaxStaleMs;
+
+    private volatile StatsSnapshot statsSnapshot;
+    private final AtomicReference<CompletableFuture<DashboardStatsResponse>> statsRefresh = new AtomicReference<>();
+    private final ExecutorService statsRefreshExecutor =
+            Executors.newSingleThreadExecutor(new CustomizableThreadFactory("dashboard-stats-"));
+    // Set when activity is recorded; the next stream tick pushes fresh stats to open dashboards
+    private final AtomicBoolean streamStatsDirty = new AtomicBoolean(false);
+
+    @PreDestroy
+    public void shutdown() {
+        statsRefreshExecutor.shutdown();
+    }
+
     public DashboardStatsResponse getDashboardStats() {
-        // Get current counts
-        Long totalUsers = dashboardMapper.countTotalUsers();
-        Long totalPlaces = dashboardMapper.countTotalPlaces();
-        Long totalImages = dashboardMapper.countTotalImages();
+        StatsSnapshot snapshot = statsSnapshot;
+        if (snapshot != null) {
+            long age = System.currentTimeMillis() - snapshot.computedAt;
+            if (age < statsTtlMs) {
+                return snapshot.stats;
+            }
+            if (age < statsMaxStaleMs) {
+                // Stale-while-revalidate: answer from the snapshot and refresh it in the background
+                statsRefreshExecutor.execute(this::refreshStats);
+                return snapshot.stats;
+            }
+        }
+
+        // No usable snapshot: wait for the refresh, sharing it with any request already computing one
+        try {
+            return refreshStats().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private CompletableFuture<DashboardStatsResponse> refreshStats() {
+        CompletableFuture<DashboardStatsResponse> refresh = new CompletableFuture<>();
+        CompletableFuture<DashboardStatsResponse> inFlight = statsRefresh.compareAndExchange(null, refresh);
+        if (inFlight != null) {
+            return inFlight;
+        }
+
+        try {
+            DashboardStatsResponse stats = computeDashboardStats();
+            statsSnapshot = new StatsSnapshot(stats, System.currentTimeMillis());
+            refresh.complete(stats);
+        } catch (RuntimeException e) {
+            refresh.completeExceptionally(e);
+        } finally {
+            statsRefresh.set(null);
+        }
+        return refresh;
+    }
+
+    private DashboardStatsResponse computeDashboardStats() {
+        // Current values come from the maintained counters, previous month from the daily snapshots
+        Map<String, Long> current = metricCounterService.getCurrentValues();
+        Map<String, Long> previousMonth = metricCounterService.getValuesOn(LocalDate.now().minusMonths(1));
 
-        // Get previous month counts for percentage calculation
-        Long usersPreviousMonth = dashboardMapper.countUsersPreviousMonth();
-        Long placesPreviousMonth = dashboardMapper.countPlacesPreviousMonth();
-        Long imagesPreviousMonth = dashboardMapper.countImagesPreviousMonth();
+        Long totalUsers = current.get(MetricCounterService.USERS);
+        Long totalPlaces = current.get(MetricCounterService.PLACES);
+        Long totalImages = current.get(MetricCounterService.IMAGES);
 
         // Calculate percentage changes
-        Double usersChange = calculatePercentageChange(totalUsers, usersPreviousMonth);
-        Double placesChange = calculatePercentageChange(totalPlaces, placesPreviousMonth);
-        Double imagesChange = calculatePercentageChange(totalImages, imagesPreviousMonth);
+        Double usersChange = calculatePercentageChange(totalUsers, previousMonth.get(MetricCounterService.USERS));
+        Double placesChange = calculatePercentageChange(totalPlaces, previousMonth.get(MetricCounterService.PLACES));
+        Double imagesChange = calculatePercentageChange(totalImages, previousMonth.get(MetricCounterService.IMAGES));
 
         return DashboardStatsResponse.builder()
                 .totalUsers(totalUsers)
@@ -56,6 +154,28 @@ public class DashboardService {
         return dashboardMapper.getPlacesOverviewByMonths(months);
     }
 
+    // Keep place_monthly_rollup in step with place inserts and deletes
+    public void recordPlaceCreated() {
+        dashboardMapper.incrementPlacesCreatedThisMonth();
+    }
+
+    public void recordPlaceDeleted(LocalDateTime createdAt) {
+        if (createdAt != null) {
+            dashboardMapper.decrementPlacesCreatedInMonth(createdAt);
+        }
+    }
+
+    // Also on startup, so a fresh deploy does not serve an empty rollup until the nightly run
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${dashboard.places-overview.reconcile-cron:0 45 3 * * *}")
+    public void reconcilePlacesOverview() {
+        try {
+            dashboardMapper.reconcilePlaceMonthlyRollup();
+        } catch (RuntimeException e) {
+            log.warn("Failed to reconcile places overview rollup: {}", e.getMessage());
+        }
+    }
+
     public List<RecentActivityResponse> getRecentActivity(int limit, int offset) {
         // Validate parameters
         if (limit < 1) limit = 1;
@@ -69,8 +189,53 @@ public class DashboardService {
                 .collect(Collectors.toList());
     }
 
+    public ActivityFeedResponse getActivityFeed(String cursor, int limit, String action, String entityType, UUID userId) {
+        if (limit < 1) limit = 1;
+        if (limit > 100) limit = 100;
+        if (action != null && !ACTIVITY_ACTIONS.contains(action)) {
+            throw new RuntimeException("Invalid action: " + action);
+        }
+        if (entityType != null && !ACTIVITY_ENTITY_TYPES.contains(entityType)) {
+            throw new RuntimeException("Invalid entity type: " + entityType);
+        }
+
+        LocalDateTime beforeCreatedAt = null;
+        UUID beforeActivityId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                beforeCreatedAt = LocalDateTime.parse(parts[0]);
+                beforeActivityId = UUID.fromString(parts[1]);
+            } catch (Exception e) {
+                throw new RuntimeException("Invalid cursor");
+            }
+        }
+
+        // One extra row tells whether another page exists
+        List<ActivityLog> activities = dashboardMapper.findActivitiesBefore(
+                beforeCreatedAt, beforeActivityId, action, entityType, userId, limit + 1);
+        boolean hasMore = activities.size() > limit;
+        if (hasMore) {
+            activities = activities.subList(0, limit);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            ActivityLog last = activities.get(activities.size() - 1);
+            nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                    (last.getCreatedAt() + "|" + last.getActivityId()).getBytes(StandardCharsets.UTF_8));
+        }
+
+        return ActivityFeedResponse.builder()
+                .activities(activities.stream().map(this::mapToActivityResponse).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
     // Helper method to log activities (can be called from other services)
     public void logActivity(String action, String entityType, UUID entityId, String entityName, UUID userId) {
+        boolean streamed = activityStreamBroadcaster.hasSubscribers();
         ActivityLog activityLog = ActivityLog.builder()
                 .activityId(UUID.randomUUID())
                 .action(action)
@@ -78,10 +243,39 @@ public class DashboardService {
                 .entityId(entityId)
                 .entityName(entityName)
                 .userId(userId)
+                // The insert looks the email up itself; streamed events need it now to match the feed
+                .userEmail(streamed ? userMapper.findEmailById(userId) : null)
                 .createdAt(LocalDateTime.now())
                 .build();
 
-        dashboardMapper.insertActivity(activityLog);
+        // Written asynchronously in batches; see ActivityLogWriter
+        activityLogWriter.enqueue(activityLog);
+
+        if (streamed) {
+            activityStreamBroadcaster.broadcast("activity", mapToActivityResponse(activityLog));
+            streamStatsDirty.set(true);
+        }
+    }
+
+    public SseEmitter subscribeToStream() {
+        SseEmitter emitter = activityStreamBroadcaster.subscribe();
+        // New subscribers get the current stats on the next tick
+        streamStatsDirty.set(true);
+        return emitter;
+    }
+
+    // Stats are computed once per tick for all open streams, and only after something changed
+    @Scheduled(fixedDelayString = "${dashboard.stream.stats-interval-ms:2000}")
+    public void publishStreamStats() {
+        if (!activityStreamBroadcaster.hasSubscribers() || !streamStatsDirty.getAndSet(false)) {
+            return;
+        }
+
+        try {
+            activityStreamBroadcaster.broadcast("stats", refreshStats().join());
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish dashboard stats to streams: {}", e.getMessage());
+        }
     }
 
     private Double calculatePercentageChange(Long current, Long previous) {
@@ -117,6 +311,7 @@ public class DashboardService {
             case "PLACE_CREATED" -> "New place added";
             case "PLACE_UPDATED" -> "Place updated";
             case "PLACE_DELETED" -> "Place deleted";
+            case "PLACES_IMPORTED" -> "Places imported";
             case "IMAGE_UPLOADED" -> "Image uploaded";
             case "IMAGE_DELETED" -> "Image deleted";
             case "USER_REGISTERED" -> "New user registered";
@@ -148,5 +343,14 @@ public class DashboardService {
             return days + (days == 1 ? " day ago" : " days ago");
         }
     }
-}
 
+    private static class StatsSnapshot {
+        private final DashboardStatsResponse stats;
+        private final long computedAt;
+
+        private StatsSnapshot(DashboardStatsResponse stats, long computedAt) {
+            this.stats = stats;
+            this.computedAt = computedAt;
+        }
+    }
+}
@@ -1,18 +1,18 @@
 package com.example.tour_place_api.service;
 
-import com.example.tour_place_api.model.entity.Favorite;
-import com.example.tour_place_api.model.entity.Place;
 import com.example.tour_place_api.model.response.FavoriteResponse;
 import com.example.tour_place_api.repository.mapper.FavoriteMapper;
 import com.example.tour_place_api.repository.mapper.PlaceMapper;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.util.UUID;
 import java.util.Optional;
 import java.util.List;
-import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 public class FavoriteService {
     @Autowired
@@ -21,60 +21,73 @@ public class FavoriteService {
     @Autowired
     private PlaceMapper placeMapper;
 
+    @Autowired
+    private FavoriteSetCache favoriteSetCache;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    // POST semantics: fails if the place is already a favorite
     public FavoriteResponse addFavorite(UUID userId, UUID placeId) {
-        Optional<Favorite> existingFavorite = favoriteMapper.findByUserAndPlace(userId, placeId);
-        if (existingFavorite.isPresent()) {
-            throw new RuntimeException("Place is already in favorites");
+        Optional<FavoriteResponse> added = insertFavorite(userId, placeId);
+        if (added.isPresent()) {
+            return added.get();
         }
 
-        if (placeMapper.findById(placeId).isEmpty()) {
-            throw new RuntimeException("Place not found");
+        // Nothing inserted: either it was already there or the place doesn't exist
+        if (favoriteMapper.findResponseByUserAndPlace(userId, placeId).isPresent()) {
+            throw new RuntimeException("Place is already in favorites");
         }
+        throw new RuntimeException("Place not found");
+    }
 
-        Favorite favorite = Favorite.builder()
-                .favId(UUID.randomUUID())
-                .userId(userId)
-                .placeId(placeId)
-                .build();
-
-        favoriteMapper.insert(favorite);
+    // PUT semantics: idempotent, returns the favorite whether it was just added or already there,
+    // so a repeated tap from a client is harmless
+    public FavoriteResponse saveFavorite(UUID userId, UUID placeId) {
+        Optional<FavoriteResponse> added = insertFavorite(userId, placeId);
+        if (added.isPresent()) {
+            return added.get();
+        }
+        return favoriteMapper.findResponseByUserAndPlace(userId, placeId)
+                .orElseThrow(() -> new RuntimeException("Place not found"));
+    }
 
-        Optional<Place> place = placeMapper.findById(placeId);
-        return mapToResponse(favorite, place.get());
+    private Optional<FavoriteResponse> insertFavorite(UUID userId, UUID placeId) {
+        // One statement: ON CONFLICT makes concurrent double taps safe instead of a unique-violation error
+        Optional<FavoriteResponse> added = favoriteMapper.insertIfAbsent(UUID.randomUUID(), userId, placeId);
+        if (added.isPresent()) {
+            favoriteSetCache.recordAdded(userId, placeId);
+            trendingService.recordFavorite(placeId);
+        }
+        return added;
     }
 
     public List<FavoriteResponse> getFavorites(UUID userId) {
-        return favoriteMapper.findByUserId(userId)
-                .stream()
-                .map(favorite -> {
-                    Optional<Place> place = placeMapper.findById(favorite.getPlaceId());
-                    return place.map(p -> mapToResponse(favorite, p)).orElse(null);
-                })
-                .filter(fav -> fav != null)
-                .collect(Collectors.toList());
+        return favoriteMapper.findResponsesByUserId(userId);
     }
 
-    public void removeFavorite(UUID userId, UUID placeId) {
-        Optional<Favorite> favorite = favoriteMapper.findByUserAndPlace(userId, placeId);
-        if (favorite.isEmpty()) {
-            throw new RuntimeException("Favorite not found");
+    // Idempotent: returns false when the place was not a favorite
+    public boolean removeFavorite(UUID userId, UUID placeId) {
+        boolean removed = favoriteMapper.deleteIfPresent(userId, placeId) > 0;
+        if (removed) {
+            favoriteSetCache.recordRemoved(userId, placeId);
         }
-
-        favoriteMapper.deleteByUserAndPlace(userId, placeId);
+        return removed;
     }
 
-    public boolean isFavorite(UUID userId, UUID placeId) {
-        return favoriteMapper.findByUserAndPlace(userId, placeId).isPresent();
+    @Scheduled(cron = "${favorites.count-repair-cron:0 0 4 * * *}")
+    public void repairFavoriteCounts() {
+        try {
+            int repaired = placeMapper.reconcileFavoriteCounts();
+            if (repaired > 0) {
+                log.info("Repaired favorite_count on {} places", repaired);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to repair favorite counts: {}", e.getMessage());
+        }
     }
 
-    private FavoriteResponse mapToResponse(Favorite favorite, Place place) {
-        return FavoriteResponse.builder()
-                .favId(favorite.getFavId())
-                .userId(favorite.getUserId())
-                .placeId(favorite.getPlaceId())
-                .placeName(place.getPlaceName())
-                .mainImage(place.getMainImage())
-                .createdAt(favorite.getCreatedAt())
-                .build();
+    public boolean isFavorite(UUID userId, UUID placeId) {
+        return favoriteSetCache.get(userId).contains(placeId);
     }
 }
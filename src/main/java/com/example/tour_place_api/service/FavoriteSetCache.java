@@ -0,0 +1,198 @@
+package com.example.tour_place_api.service;
+
+import com.example.tour_place_api.repository.mapper.FavoriteMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Favorite place IDs per user, loaded with one query and kept in step with add/remove,
+// so marking isFavorite on a list of places is an in-memory lookup instead of a query per place
+@Component
+public class FavoriteSetCache {
+    @Autowired
+    private FavoriteMapper favoriteMapper;
+
+    @Value("${favorites.cache.max-users:10000}")
+    private int maxUsers;
+
+    // Least recently used users are evicted once maxUsers is reached
+    private final LinkedHashMap<UUID, FavoriteSet> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, FavoriteSet> eldest) {
+            return size() > maxUsers;
+        }
+    };
+
+    // Bumped by every change, so a load that raced with one is not cached
+    private final AtomicLong changes = new AtomicLong();
+
+    public FavoriteSet get(UUID userId) {
+        synchronized (cache) {
+            FavoriteSet favorites = cache.get(userId);
+            if (favorites != null) {
+                return favorites;
+            }
+        }
+
+        long changesBeforeLoad = changes.get();
+        FavoriteSet favorites = FavoriteSet.of(favoriteMapper.findPlaceIdsByUserId(userId));
+        synchronized (cache) {
+            if (changes.get() == changesBeforeLoad) {
+                cache.put(userId, favorites);
+            }
+        }
+        return favorites;
+    }
+
+    public void recordAdded(UUID userId, UUID placeId) {
+        afterCommit(() -> update(userId, placeId, true));
+    }
+
+    public void recordRemoved(UUID userId, UUID placeId) {
+        afterCommit(() -> update(userId, placeId, false));
+    }
+
+    private void update(UUID userId, UUID placeId, boolean added) {
+        synchronized (cache) {
+            changes.incrementAndGet();
+            FavoriteSet favorites = cache.get(userId);
+            if (favorites != null) {
+                cache.put(userId, added ? favorites.with(placeId) : favorites.without(placeId));
+            }
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        // A rolled back change must not reach the cache
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+            return;
+        }
+        action.run();
+    }
+
+    // Immutable set of UUIDs stored as two parallel long arrays sorted by (most, least) significant bits;
+    // about 16 bytes per favorite and a binary search per lookup
+    public static final class FavoriteSet {
+        private static final FavoriteSet EMPTY = new FavoriteSet(new long[0], new long[0]);
+
+        private final long[] mostSigBits;
+        private final long[] leastSigBits;
+
+        private FavoriteSet(long[] mostSigBits, long[] leastSigBits) {
+            this.mostSigBits = mostSigBits;
+            this.leastSigBits = leastSigBits;
+        }
+
+        static FavoriteSet of(List<UUID> placeIds) {
+            if (placeIds.isEmpty()) {
+                return EMPTY;
+            }
+            UUID[] sorted = placeIds.toArray(new UUID[0]);
+            Arrays.sort(sorted, FavoriteSet::compare);
+
+            long[] most = new long[sorted.length];
+            long[] least = new long[sorted.length];
+            int size = 0;
+            for (UUID placeId : sorted) {
+                if (size > 0 && most[size - 1] == placeId.getMostSignificantBits()
+                        && least[size - 1] == placeId.getLeastSignificantBits()) {
+                    continue;
+                }
+                most[size] = placeId.getMostSignificantBits();
+                least[size] = placeId.getLeastSignificantBits();
+                size++;
+            }
+            return new FavoriteSet(Arrays.copyOf(most, size), Arrays.copyOf(least, size));
+        }
+
+        public boolean contains(UUID placeId) {
+            return indexOf(placeId) >= 0;
+        }
+
+        public int size() {
+            return mostSigBits.length;
+        }
+
+        // Identifies the set's contents, e.g. for ETags of responses that carry isFavorite
+        public String fingerprint() {
+            int hash = 31 * Arrays.hashCode(mostSigBits) + Arrays.hashCode(leastSigBits);
+            return mostSigBits.length + "." + Integer.toHexString(hash);
+        }
+
+        FavoriteSet with(UUID placeId) {
+            int index = indexOf(placeId);
+            if (index >= 0) {
+                return this;
+            }
+            int insertAt = -index - 1;
+            return new FavoriteSet(
+                    insert(mostSigBits, insertAt, placeId.getMostSignificantBits()),
+                    insert(leastSigBits, insertAt, placeId.getLeastSignificantBits()));
+        }
+
+        FavoriteSet without(UUID placeId) {
+            int index = indexOf(placeId);
+            if (index < 0) {
+                return this;
+            }
+            return new FavoriteSet(remove(mostSigBits, index), remove(leastSigBits, index));
+        }
+
+        private int indexOf(UUID placeId) {
+            long most = placeId.getMostSignificantBits();
+            long least = placeId.getLeastSignificantBits();
+            int low = 0;
+            int high = mostSigBits.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int cmp = mostSigBits[mid] != most
+                        ? Long.compare(mostSigBits[mid], most)
+                        : Long.compare(leastSigBits[mid], least);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        // Signed comparison to match indexOf; UUID.compareTo order is not relied on
+        private static int compare(UUID a, UUID b) {
+            int cmp = Long.compare(a.getMostSignificantBits(), b.getMostSignificantBits());
+            return cmp != 0 ? cmp : Long.compare(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+        }
+
+        private static long[] insert(long[] values, int index, long value) {
+            long[] result = new long[values.length + 1];
+            System.arraycopy(values, 0, result, 0, index);
+            result[index] = value;
+            System.arraycopy(values, index, result, index + 1, values.length - index);
+            return result;
+        }
+
+        private static long[] remove(long[] values, int index) {
+            long[] result = new long[values.length - 1];
+            System.arraycopy(values, 0, result, 0, index);
+            System.arraycopy(values, index + 1, result, index, values.length - index - 1);
+            return result;
+        }
+    }
+}
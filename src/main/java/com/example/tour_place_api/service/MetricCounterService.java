@@ -0,0 +1,154 @@
+package com.example.tour_place_api.service;
+
+import com.example.tour_place_api.model.entity.DashboardCounts;
+import com.example.tour_place_api.model.entity.MetricCounter;
+import com.example.tour_place_api.repository.mapper.DashboardMapper;
+import com.example.tour_place_api.repository.mapper.MetricCounterMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+@Service
+public class MetricCounterService {
+    public static final String USERS = "users";
+    public static final String PLACES = "places";
+    public static final String IMAGES = "images";
+
+    private static final List<String> METRICS = List.of(USERS, PLACES, IMAGES);
+
+    @Autowired
+    private MetricCounterMapper metricCounterMapper;
+
+    @Autowired
+    private DashboardMapper dashboardMapper;
+
+    @Value("${metrics.counters.snapshot-retention-days:400}")
+    private int snapshotRetentionDays;
+
+    // Deltas not yet written to metric_counters; LongAdder keeps concurrent increments contention-free
+    private final ConcurrentHashMap<String, LongAdder> pendingDeltas = new ConcurrentHashMap<>();
+
+    public void increment(String metric) {
+        add(metric, 1);
+    }
+
+    public void decrement(String metric) {
+        add(metric, -1);
+    }
+
+    public void add(String metric, long delta) {
+        if (delta == 0) {
+            return;
+        }
+
+        // Inside a transaction only count the change once it is committed
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pendingDeltas.computeIfAbsent(metric, key -> new LongAdder()).add(delta);
+                }
+            });
+            return;
+        }
+        pendingDeltas.computeIfAbsent(metric, key -> new LongAdder()).add(delta);
+    }
+
+    public Map<String, Long> getCurrentValues() {
+        List<MetricCounter> counters = metricCounterMapper.findAll();
+        if (counters.size() < METRICS.size()) {
+            // First use: seed the counters from the source tables
+            reconcile();
+            counters = metricCounterMapper.findAll();
+        }
+
+        Map<String, Long> values = toMap(counters);
+        pendingDeltas.forEach((metric, delta) -> values.merge(metric, delta.sum(), Long::sum));
+        return values;
+    }
+
+    public Map<String, Long> getValuesOn(LocalDate date) {
+        return toMap(metricCounterMapper.findSnapshotsOnOrBefore(date));
+    }
+
+    @Scheduled(fixedDelayString = "${metrics.counters.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        for (Map.Entry<String, LongAdder> entry : pendingDeltas.entrySet()) {
+            long delta = entry.getValue().sumThenReset();
+            if (delta == 0) {
+                continue;
+            }
+
+            try {
+                // No row yet means the counters were never seeded; the seeding count already includes this change
+                metricCounterMapper.addToCounter(entry.getKey(), delta);
+            } catch (RuntimeException e) {
+                entry.getValue().add(delta);
+                log.warn("Failed to flush metric counters, will retry: {}", e.getMessage());
+                return;
+            }
+        }
+    }
+
+    @Scheduled(cron = "${metrics.counters.snapshot-cron:0 5 0 * * *}")
+    public void snapshotDaily() {
+        try {
+            flush();
+            metricCounterMapper.snapshotCounters();
+            metricCounterMapper.deleteSnapshotsBefore(LocalDate.now().minusDays(snapshotRetentionDays));
+        } catch (RuntimeException e) {
+            log.warn("Failed to snapshot metric counters: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${metrics.counters.reconcile-cron:0 30 3 * * *}")
+    public void scheduledReconcile() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            log.warn("Failed to reconcile metric counters: {}", e.getMessage());
+        }
+    }
+
+    // Recounts from the source tables to correct any drift (e.g. counts lost on a crash before a flush)
+    public synchronized void reconcile() {
+        // Zero the adders right before the recount. Deltas arriving from here on come from afterCommit callbacks,
+        // so their changes are already in the recount; they are subtracted now and the next flush adds them back
+        flush();
+        DashboardCounts counts = dashboardMapper.getDashboardCounts();
+        metricCounterMapper.upsertCounter(USERS, counts.getTotalUsers() - pendingDelta(USERS));
+        metricCounterMapper.upsertCounter(PLACES, counts.getTotalPlaces() - pendingDelta(PLACES));
+        metricCounterMapper.upsertCounter(IMAGES, counts.getTotalImages() - pendingDelta(IMAGES));
+
+        // Backfill the month-ago comparison point so it exists before a month of daily snapshots has accumulated
+        LocalDate monthAgo = LocalDate.now().minusMonths(1);
+        metricCounterMapper.insertSnapshotIfAbsent(USERS, monthAgo, counts.getUsersPreviousMonth());
+        metricCounterMapper.insertSnapshotIfAbsent(PLACES, monthAgo, counts.getPlacesPreviousMonth());
+        metricCounterMapper.insertSnapshotIfAbsent(IMAGES, monthAgo, counts.getImagesPreviousMonth());
+    }
+
+    private long pendingDelta(String metric) {
+        LongAdder delta = pendingDeltas.get(metric);
+        return delta == null ? 0 : delta.sum();
+    }
+
+    private Map<String, Long> toMap(List<MetricCounter> counters) {
+        Map<String, Long> values = new HashMap<>();
+        for (MetricCounter counter : counters) {
+            values.put(counter.getMetricName(), counter.getValue());
+        }
+        return values;
+    }
+}
@@ -1,23 +1,45 @@
 package com.example.tour_place_api.service;
 
 import com.example.tour_place_api.model.enums.FileType;
+import com.example.tour_place_api.model.response.FileUploadResultResponse;
+import com.example.tour_place_api.repository.mapper.StorageMapper;
 import io.minio.BucketExistsArgs;
 import io.minio.MakeBucketArgs;
 import io.minio.MinioClient;
 import io.minio.PutObjectArgs;
 import io.minio.GetObjectArgs;
 import io.minio.GetPresignedObjectUrlArgs;
+import io.minio.ListObjectsArgs;
 import io.minio.RemoveObjectArgs;
+import io.minio.RemoveObjectsArgs;
+import io.minio.Result;
 import io.minio.http.Method;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
+import io.minio.messages.Item;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.InputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 @Service
@@ -25,12 +47,43 @@ public class MinioService {
     @Autowired
     private MinioClient minioClient;
 
+    @Autowired
+    private StorageMapper storageMapper;
+
     @Value("${minio.bucket-name:tour-place}")
     private String bucketName;
 
     @Value("${minio.url}")
     private String minioUrl;
 
+    @Value("${minio.upload.parallelism:8}")
+    private int uploadParallelism;
+
+    @Value("${minio.upload.queue-capacity:64}")
+    private int uploadQueueCapacity;
+
+    // Set once the bucket is known to exist so uploads skip the bucketExists round trip
+    private volatile boolean bucketReady = false;
+
+    private ThreadPoolExecutor uploadExecutor;
+
+    @PostConstruct
+    public void startUploadExecutor() {
+        // Bounded pool and queue; when both are full the request thread uploads the file itself
+        uploadExecutor = new ThreadPoolExecutor(
+                uploadParallelism, uploadParallelism,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(uploadQueueCapacity),
+                new CustomizableThreadFactory("minio-upload-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        uploadExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void stopUploadExecutor() {
+        uploadExecutor.shutdown();
+    }
+
     public void initializeBucket() {
         try {
             boolean isExist = minioClient.bucketExists(
@@ -39,31 +92,31 @@ public class MinioService {
                 minioClient.makeBucket(
                         MakeBucketArgs.builder().bucket(bucketName).build());
             }
+            bucketReady = true;
         } catch (Exception e) {
             throw new RuntimeException("Failed to initialize bucket: " + e.getMessage());
         }
     }
 
+    public boolean isBucketReady() {
+        return bucketReady;
+    }
+
+    private void ensureBucketReady() {
+        // Normally done at startup by MinioBucketInitializer; only falls back here if MinIO was unreachable then
+        if (!bucketReady) {
+            initializeBucket();
+        }
+    }
+
     public String uploadFile(MultipartFile file) {
         if (file == null || file.isEmpty()) {
             throw new RuntimeException("File is empty or null");
         }
         
         try {
-            initializeBucket();
-            String objectName = generateObjectName(file.getOriginalFilename());
-            InputStream inputStream = file.getInputStream();
-
-            // Upload file to MinIO
-            minioClient.putObject(
-                    PutObjectArgs.builder()
-                            .bucket(bucketName)
-                            .object(objectName)
-                            .stream(inputStream, file.getSize(), -1)
-                            .contentType(file.getContentType())
-                            .build());
-
-            inputStream.close();
+            ensureBucketReady();
+            String objectName = putObject(file, generateObjectName(file.getOriginalFilename()), true);
 
             // Get permanent URL (1 year expiry for practical purposes)
             String url = getFileUrl(objectName);
@@ -80,11 +133,20 @@ public class MinioService {
         }
         
         try {
-            initializeBucket();
+            ensureBucketReady();
             String objectName = generateObjectName(file.getOriginalFilename(), fileType, userId);
-            InputStream inputStream = file.getInputStream();
 
-            // Upload file to MinIO
+            // Profile images stay per user: their path carries the owner used by isFileOwnedByUser
+            return putObject(file, objectName, fileType != FileType.PROFILE_IMAGE);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to upload file to MinIO: " + e.getMessage(), e);
+        }
+    }
+
+    private String putObject(MultipartFile file, String objectName, boolean deduplicate) throws Exception {
+        // SHA-256 is computed as MinIO reads the stream, so the content is not read or buffered twice
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        try (InputStream inputStream = new DigestInputStream(file.getInputStream(), digest)) {
             minioClient.putObject(
                     PutObjectArgs.builder()
                             .bucket(bucketName)
@@ -92,13 +154,44 @@ public class MinioService {
                             .stream(inputStream, file.getSize(), -1)
                             .contentType(file.getContentType())
                             .build());
+        }
 
-            inputStream.close();
-            
+        if (!deduplicate) {
             return objectName;
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to upload file to MinIO: " + e.getMessage(), e);
         }
+
+        String contentHash = HexFormat.of().formatHex(digest.digest());
+        String storedObjectName = storageMapper.registerObject(contentHash, objectName);
+        if (!storedObjectName.equals(objectName)) {
+            // Same content is already stored: reuse that object and drop the copy just uploaded
+            removeObject(objectName);
+        }
+        return storedObjectName;
+    }
+
+    public List<FileUploadResultResponse> uploadFilesConcurrently(List<MultipartFile> files, FileType fileType, String userId) {
+        List<CompletableFuture<String>> uploads = new ArrayList<>();
+        for (MultipartFile file : files) {
+            uploads.add(CompletableFuture.supplyAsync(
+                    () -> uploadFileAndGetFileName(file, fileType, userId), uploadExecutor));
+        }
+
+        // Results keep the order of the submitted parts; one failed part does not affect the others
+        List<FileUploadResultResponse> results = new ArrayList<>();
+        for (int i = 0; i < files.size(); i++) {
+            MultipartFile file = files.get(i);
+            FileUploadResultResponse.FileUploadResultResponseBuilder result = FileUploadResultResponse.builder()
+                    .originalFileName(file.getOriginalFilename())
+                    .fileType(file.getContentType())
+                    .fileSize(file.getSize());
+            try {
+                results.add(result.fileName(uploads.get(i).join()).success(true).build());
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                results.add(result.success(false).error(cause.getMessage()).build());
+            }
+        }
+        return results;
     }
 
     public boolean isFileOwnedByUser(String fileName, String userId) {
@@ -127,6 +220,26 @@ public class MinioService {
     }
 
     public void deleteFile(String fileName) {
+        // Deduplicated objects can back several uploads; only remove the object once the last reference is released
+        Integer remainingReferences = storageMapper.releaseObject(fileName);
+        if (remainingReferences != null) {
+            if (remainingReferences > 0 || storageMapper.deleteUnreferencedObject(fileName) == 0) {
+                return;
+            }
+        }
+        removeObject(fileName);
+    }
+
+    // Drops the reference held by a place or profile image without removing the object: the same URL may be
+    // stored elsewhere, so removal is left to StorageCleanupService, which checks the database references first
+    public void releaseFile(String fileUrl) {
+        String objectName = resolveObjectName(fileUrl);
+        if (objectName != null) {
+            storageMapper.releaseObject(objectName);
+        }
+    }
+
+    private void removeObject(String fileName) {
         try {
             minioClient.removeObject(
                     RemoveObjectArgs.builder()
@@ -138,6 +251,72 @@ public class MinioService {
         }
     }
 
+    public Iterable<Result<Item>> listObjects(int pageSize) {
+        // Lazy: each page of pageSize keys is fetched from MinIO only as the iterator reaches it
+        return minioClient.listObjects(
+                ListObjectsArgs.builder()
+                        .bucket(bucketName)
+                        .recursive(true)
+                        .maxKeys(pageSize)
+                        .build());
+    }
+
+    public List<String> deleteFiles(List<String> fileNames) {
+        List<DeleteObject> objects = new ArrayList<>();
+        for (String fileName : fileNames) {
+            objects.add(new DeleteObject(fileName));
+        }
+
+        // removeObjects is lazy, the request is only sent while iterating the results
+        List<String> failed = new ArrayList<>();
+        try {
+            Iterable<Result<DeleteError>> results = minioClient.removeObjects(
+                    RemoveObjectsArgs.builder()
+                            .bucket(bucketName)
+                            .objects(objects)
+                            .build());
+            for (Result<DeleteError> result : results) {
+                failed.add(result.get().objectName());
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to delete files from MinIO: " + e.getMessage(), e);
+        }
+        return failed;
+    }
+
+    public String resolveObjectName(String fileUrl) {
+        if (fileUrl == null || fileUrl.trim().isEmpty()) {
+            return null;
+        }
+        String value = fileUrl.trim();
+
+        // View URL from the upload endpoint: .../api/v1/file/view?fileName={objectName}
+        int fileNameIndex = value.indexOf("fileName=");
+        if (fileNameIndex >= 0) {
+            String objectName = value.substring(fileNameIndex + "fileName=".length());
+            int end = objectName.indexOf('&');
+            if (end >= 0) {
+                objectName = objectName.substring(0, end);
+            }
+            return URLDecoder.decode(objectName, StandardCharsets.UTF_8);
+        }
+
+        // Presigned URL from uploadFile: {minioUrl}/{bucket}/{objectName}?X-Amz-...
+        String bucketPath = "/" + bucketName + "/";
+        int bucketIndex = value.indexOf(bucketPath);
+        if (bucketIndex >= 0) {
+            String objectName = value.substring(bucketIndex + bucketPath.length());
+            int query = objectName.indexOf('?');
+            if (query >= 0) {
+                objectName = objectName.substring(0, query);
+            }
+            return URLDecoder.decode(objectName, StandardCharsets.UTF_8);
+        }
+
+        // Plain object name; any other absolute URL points outside our bucket
+        return value.contains("://") ? null : value;
+    }
+
     public String getFileUrl(String objectName) {
         try {
             // Generate presigned URL with 1 year expiry (practical permanent URL)
@@ -3,25 +3,37 @@ package com.example.tour_place_api.service;
 import com.example.tour_place_api.model.entity.Place;
 import com.example.tour_place_api.model.entity.AdditionalImage;
 import com.example.tour_place_api.model.entity.ImageOfPlace;
+import com.example.tour_place_api.model.entity.PlaceImageUrl;
 import com.example.tour_place_api.model.request.CreatePlaceRequest;
 import com.example.tour_place_api.model.request.UpdatePlaceRequest;
 import com.example.tour_place_api.model.response.PlaceResponse;
 import com.example.tour_place_api.model.response.PlaceSummaryResponse;
+import com.example.tour_place_api.repository.mapper.CatalogMapper;
 import com.example.tour_place_api.repository.mapper.PlaceMapper;
 import com.example.tour_place_api.repository.mapper.AdditionalImageMapper;
 import com.example.tour_place_api.repository.mapper.ImageOfPlaceMapper;
-import com.example.tour_place_api.repository.mapper.FavoriteMapper;
+import org.apache.ibatis.cursor.Cursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 import java.util.Optional;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 public class PlaceService {
+    // Places buffered per additional-image lookup when streaming a listing
+    private static final int STREAM_PAGE_SIZE = 200;
+
     @Autowired
     private PlaceMapper placeMapper;
 
@@ -31,12 +43,22 @@ public class PlaceService {
     @Autowired
     private ImageOfPlaceMapper imageOfPlaceMapper;
 
+    @Autowired
+    private CatalogMapper catalogMapper;
+
     @Autowired
     private MinioService minioService;
 
     @Autowired
-    private FavoriteMapper favoriteMapper;
+    private FavoriteSetCache favoriteSetCache;
+
+    @Autowired
+    private MetricCounterService metricCounterService;
 
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Transactional
     public PlaceResponse createPlace(CreatePlaceRequest request, MultipartFile mainImage) {
         Place place = Place.builder()
                 .placeId(UUID.randomUUID())
@@ -59,6 +81,11 @@ public class PlaceService {
 
         // Insert place with image URL into database
         placeMapper.insert(place);
+        dashboardService.recordPlaceCreated();
+        metricCounterService.increment(MetricCounterService.PLACES);
+        if (hasImage(place.getMainImage())) {
+            metricCounterService.increment(MetricCounterService.IMAGES);
+        }
         return mapToResponse(place, null, null);
     }
 
@@ -75,42 +102,93 @@ public class PlaceService {
         // Check if place is favorited by user (null if userId is null)
         Boolean isFavorite = null;
         if (userId != null) {
-            isFavorite = favoriteMapper.findByUserAndPlace(userId, placeId).isPresent();
+            isFavorite = favoriteSetCache.get(userId).contains(placeId);
         }
         
         return mapToResponse(place, additionalImages, isFavorite);
     }
 
-    public List<PlaceResponse> getAllPlaces(String filter, UUID userId) {
+    public List<PlaceResponse> getAllPlaces(String filter, UUID userId, Integer limit, int offset) {
         List<Place> places;
         if ("most_favorite".equalsIgnoreCase(filter)) {
-            places = placeMapper.findAllOrderByFavoriteCount();
+            if (limit != null && limit < 1) limit = 1;
+            if (limit != null && limit > 100) limit = 100;
+            if (offset < 0) offset = 0;
+            places = placeMapper.findAllOrderByFavoriteCount(limit, offset);
         } else {
             places = placeMapper.findAll();
         }
         
+        // One favorite set lookup per request instead of a query per place
+        FavoriteSetCache.FavoriteSet favorites = userId != null ? favoriteSetCache.get(userId) : null;
         return places.stream()
                 .map(place -> {
                     List<String> additionalImages = getAdditionalImagesForPlace(place.getPlaceId());
                     // Check if place is favorited by user (null if userId is null, false if not favorited)
                     Boolean isFavorite = null;
-                    if (userId != null) {
-                        isFavorite = favoriteMapper.findByUserAndPlace(userId, place.getPlaceId()).isPresent();
+                    if (favorites != null) {
+                        isFavorite = favorites.contains(place.getPlaceId());
                     }
                     return mapToResponse(place, additionalImages, isFavorite);
                 })
                 .collect(Collectors.toList());
     }
 
+    // Streaming variant of getAllPlaces without limit/offset; memory is bounded by STREAM_PAGE_SIZE places
+    @Transactional(readOnly = true)
+    public void streamAllPlaces(String filter, UUID userId, Consumer<PlaceResponse> sink) {
+        FavoriteSetCache.FavoriteSet favorites = userId != null ? favoriteSetCache.get(userId) : null;
+        List<Place> page = new ArrayList<>(STREAM_PAGE_SIZE);
+        try (Cursor<Place> places = placeMapper.streamListing("most_favorite".equalsIgnoreCase(filter))) {
+            for (Place place : places) {
+                page.add(place);
+                if (page.size() == STREAM_PAGE_SIZE) {
+                    writePage(page, favorites, sink);
+                    page.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        writePage(page, favorites, sink);
+    }
+
+    // Responses for an already loaded batch of places with one query for all their additional images
+    public List<PlaceResponse> mapToResponses(List<Place> places, UUID userId) {
+        FavoriteSetCache.FavoriteSet favorites = userId != null ? favoriteSetCache.get(userId) : null;
+        List<PlaceResponse> responses = new ArrayList<>(places.size());
+        writePage(places, favorites, responses::add);
+        return responses;
+    }
+
+    private void writePage(List<Place> page, FavoriteSetCache.FavoriteSet favorites, Consumer<PlaceResponse> sink) {
+        if (page.isEmpty()) {
+            return;
+        }
+
+        // One query for the whole page's additional images instead of one per place
+        Map<UUID, List<String>> imagesByPlace = new HashMap<>();
+        List<UUID> placeIds = page.stream().map(Place::getPlaceId).collect(Collectors.toList());
+        for (PlaceImageUrl image : imageOfPlaceMapper.findImageUrlsByPlaceIds(placeIds)) {
+            imagesByPlace.computeIfAbsent(image.getPlaceId(), key -> new ArrayList<>()).add(image.getImageUrl());
+        }
+        for (Place place : page) {
+            Boolean isFavorite = favorites != null ? favorites.contains(place.getPlaceId()) : null;
+            sink.accept(mapToResponse(place, imagesByPlace.getOrDefault(place.getPlaceId(), List.of()), isFavorite));
+        }
+    }
+
     public List<PlaceResponse> getNearbyPlaces(double lat, double longitude, int limit, UUID userId) {
         List<Place> places = placeMapper.findNearby(lat, longitude, limit);
+        // One favorite set lookup per request instead of a query per place
+        FavoriteSetCache.FavoriteSet favorites = userId != null ? favoriteSetCache.get(userId) : null;
         return places.stream()
                 .map(place -> {
                     List<String> additionalImages = getAdditionalImagesForPlace(place.getPlaceId());
                     // Check if place is favorited by user (null if userId is null, false if not favorited)
                     Boolean isFavorite = null;
-                    if (userId != null) {
-                        isFavorite = favoriteMapper.findByUserAndPlace(userId, place.getPlaceId()).isPresent();
+                    if (favorites != null) {
+                        isFavorite = favorites.contains(place.getPlaceId());
                     }
                     return mapToResponse(place, additionalImages, isFavorite);
                 })
@@ -145,6 +223,7 @@ public class PlaceService {
         }
 
         Place place = placeOptional.get();
+        boolean hadMainImage = hasImage(place.getMainImage());
 
         if (request.getPlaceName() != null) {
             place.setPlaceName(request.getPlaceName());
@@ -170,23 +249,48 @@ public class PlaceService {
         }
         
         Place updatedPlace = updatedPlaceOptional.get();
+        // An update can replace the main image but never clear it, so the image count can only go up here
+        if (!hadMainImage && hasImage(updatedPlace.getMainImage())) {
+            metricCounterService.increment(MetricCounterService.IMAGES);
+        }
         return mapToResponse(updatedPlace, getAdditionalImagesForPlace(placeId), null);
     }
 
-    public void deletePlace(UUID placeId) {
-        if (placeMapper.findById(placeId).isEmpty()) {
+    // Returns the name of the deleted place so callers can log it without loading the place again
+    @Transactional
+    public String deletePlace(UUID placeId) {
+        Optional<Place> placeOptional = placeMapper.findById(placeId);
+        if (placeOptional.isEmpty()) {
             throw new RuntimeException("Place not found");
         }
 
-        imageOfPlaceMapper.deleteByPlaceId(placeId);
-        placeMapper.delete(placeId);
+        List<PlaceImageUrl> imageUrls = imageOfPlaceMapper.findImageUrlsByPlaceIds(List.of(placeId));
+        int removedImages = imageOfPlaceMapper.deleteByPlaceId(placeId);
+        placeMapper.delete(placeId, catalogMapper.nextVersion());
+
+        // Released in this transaction, so the references only drop if the place is really gone
+        minioService.releaseFile(placeOptional.get().getMainImage());
+        for (PlaceImageUrl imageUrl : imageUrls) {
+            minioService.releaseFile(imageUrl.getImageUrl());
+        }
+        dashboardService.recordPlaceDeleted(placeOptional.get().getCreatedAt());
+
+        metricCounterService.decrement(MetricCounterService.PLACES);
+        if (hasImage(placeOptional.get().getMainImage())) {
+            removedImages++;
+        }
+        metricCounterService.add(MetricCounterService.IMAGES, -removedImages);
+        return placeOptional.get().getPlaceName();
     }
 
+    @Transactional
     public void addAdditionalImages(UUID placeId, List<String> imageUrls) {
         if (placeMapper.findById(placeId).isEmpty()) {
             throw new RuntimeException("Place not found");
         }
 
+        List<AdditionalImage> additionalImages = new ArrayList<>();
+        List<ImageOfPlace> imageOfPlaces = new ArrayList<>();
         for (String imageUrl : imageUrls) {
             if (imageUrl == null || imageUrl.trim().isEmpty()) {
                 continue; // Skip empty URLs
@@ -196,17 +300,28 @@ public class PlaceService {
                     .imageId(UUID.randomUUID())
                     .imageUrl(imageUrl.trim())
                     .build();
+            additionalImages.add(additionalImage);
 
-            additionalImageMapper.insert(additionalImage);
-
-            ImageOfPlace imageOfPlace = ImageOfPlace.builder()
+            imageOfPlaces.add(ImageOfPlace.builder()
                     .ipId(UUID.randomUUID())
                     .placeId(placeId)
                     .imageId(additionalImage.getImageId())
-                    .build();
+                    .build());
+        }
 
-            imageOfPlaceMapper.insert(imageOfPlace);
+        if (additionalImages.isEmpty()) {
+            return;
         }
+
+        // Two multi-row INSERTs in one transaction: either every image is attached or none is
+        additionalImageMapper.insertBatch(additionalImages);
+        imageOfPlaceMapper.insertBatch(imageOfPlaces);
+        placeMapper.bumpCatalogVersion(placeId);
+        metricCounterService.add(MetricCounterService.IMAGES, imageOfPlaces.size());
+    }
+
+    private boolean hasImage(String imageUrl) {
+        return imageUrl != null && !imageUrl.isEmpty();
     }
 
     private List<String> getAdditionalImagesForPlace(UUID placeId) {
@@ -230,6 +345,8 @@ public class PlaceService {
                 .longitude(place.getLongitude())
                 .additionalImages(additionalImages)
                 .isFavorite(isFavorite)
+                .favoriteCount(place.getFavoriteCount())
+                .catalogVersion(place.getCatalogVersion())
                 .createdAt(place.getCreatedAt())
                 .updatedAt(place.getUpdatedAt())
                 .build();
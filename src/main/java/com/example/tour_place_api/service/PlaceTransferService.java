@@ -0,0 +1,442 @@
+package com.example.tour_place_api.service;
+
+import com.example.tour_place_api.model.entity.Place;
+import com.example.tour_place_api.model.request.CreatePlaceRequest;
+import com.example.tour_place_api.model.response.PlaceImportErrorResponse;
+import com.example.tour_place_api.model.response.PlaceImportResponse;
+import com.example.tour_place_api.repository.mapper.DashboardMapper;
+import com.example.tour_place_api.repository.mapper.PlaceMapper;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+// Bulk NDJSON/CSV import and export of places. Both directions stream: the import holds at most one
+// batch of rows and the export reads place through a cursor, so memory does not grow with the catalog.
+@Slf4j
+@Service
+public class PlaceTransferService {
+    public static final String FORMAT_NDJSON = "ndjson";
+    public static final String FORMAT_CSV = "csv";
+
+    private static final List<String> EXPORT_COLUMNS = List.of(
+            "placeId", "placeName", "description", "lat", "longitude", "mainImageUrl",
+            "favoriteCount", "createdAt", "updatedAt");
+
+    @Autowired
+    private SqlSessionFactory sqlSessionFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PlaceMapper placeMapper;
+
+    @Autowired
+    private MetricCounterService metricCounterService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${places.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${places.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    // Statements on this session are queued and sent to the driver as one JDBC batch when the transaction commits
+    private SqlSessionTemplate batchSession;
+    private TransactionTemplate writeTransaction;
+    private TransactionTemplate readTransaction;
+
+    @PostConstruct
+    public void init() {
+        batchSession = new SqlSessionTemplate(sqlSessionFactory, ExecutorType.BATCH);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+    }
+
+    public PlaceImportResponse importPlaces(InputStream input, String format) {
+        long startedAt = System.currentTimeMillis();
+        ImportRun run = new ImportRun();
+        String abortMessage = null;
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        try {
+            if (FORMAT_CSV.equals(format)) {
+                readCsv(reader, run);
+            } else {
+                readNdjson(reader, run);
+            }
+        } catch (IOException | RuntimeException e) {
+            // Earlier chunks are already committed, so stop reading and report them instead of failing the request
+            abortMessage = e.getMessage();
+            log.warn("Place import stopped after {} rows: {}", run.totalRows, e.getMessage());
+        }
+        // Rows read before a failure are complete, so they are written either way
+        run.writePending();
+
+        return PlaceImportResponse.builder()
+                .format(format)
+                .totalRows(run.totalRows)
+                .importedRows(run.importedRows)
+                .failedRows(run.failedRows)
+                .errors(run.errors)
+                .errorsTruncated(run.failedRows > run.errors.size())
+                .aborted(abortMessage != null)
+                .abortMessage(abortMessage)
+                .durationMs(System.currentTimeMillis() - startedAt)
+                .build();
+    }
+
+    private void readNdjson(BufferedReader reader, ImportRun run) throws IOException {
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+
+            CreatePlaceRequest request;
+            try {
+                request = objectMapper.readValue(line, CreatePlaceRequest.class);
+            } catch (JsonProcessingException e) {
+                run.reject(lineNumber, "Invalid JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            run.accept(lineNumber, request);
+        }
+    }
+
+    private void readCsv(BufferedReader reader, ImportRun run) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return;
+        }
+
+        // Column names are matched case-insensitively and with or without underscores
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.putIfAbsent(header.get(i).trim().replace("_", "").toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("placename")) {
+            throw new RuntimeException("CSV header must include a placeName column");
+        }
+
+        while (true) {
+            List<String> record;
+            try {
+                record = csv.next();
+            } catch (IllegalArgumentException e) {
+                // Nothing after an unterminated quote can be split into records reliably
+                run.reject(csv.recordLine, e.getMessage());
+                break;
+            }
+            if (record == null) {
+                break;
+            }
+
+            int lineNumber = csv.recordLine;
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+
+            try {
+                run.accept(lineNumber, CreatePlaceRequest.builder()
+                        .placeName(column(record, columns, "placename"))
+                        .description(column(record, columns, "description"))
+                        .lat(decimalColumn(record, columns, "lat", "Latitude"))
+                        .longitude(decimalColumn(record, columns, "longitude", "Longitude"))
+                        .mainImageUrl(column(record, columns, "mainimageurl"))
+                        .build());
+            } catch (IllegalArgumentException e) {
+                run.reject(lineNumber, e.getMessage());
+            }
+        }
+    }
+
+    private String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size() || record.get(index).isEmpty()) {
+            return null;
+        }
+        return record.get(index);
+    }
+
+    private BigDecimal decimalColumn(List<String> record, Map<String, Integer> columns, String name, String label) {
+        String value = column(record, columns, name);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(label + " is not a number: " + value);
+        }
+    }
+
+    // Rows for the current chunk plus the running totals of one import request
+    private class ImportRun {
+        private final List<Integer> pendingLines = new ArrayList<>();
+        private final List<Place> pendingPlaces = new ArrayList<>();
+        private final List<PlaceImportErrorResponse> errors = new ArrayList<>();
+        private int totalRows;
+        private int importedRows;
+        private int failedRows;
+
+        private void accept(int lineNumber, CreatePlaceRequest request) {
+            totalRows++;
+            Set<ConstraintViolation<CreatePlaceRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                failedRows++;
+                addError(lineNumber, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+
+            String mainImage = request.getMainImageUrl();
+            pendingLines.add(lineNumber);
+            pendingPlaces.add(Place.builder()
+                    .placeId(UUID.randomUUID())
+                    .placeName(request.getPlaceName().trim())
+                    .description(request.getDescription())
+                    .lat(request.getLat())
+                    .longitude(request.getLongitude())
+                    .mainImage(mainImage != null && !mainImage.isBlank() ? mainImage.trim() : null)
+                    .build());
+            if (pendingPlaces.size() >= batchSize) {
+                writePending();
+            }
+        }
+
+        private void reject(int lineNumber, String message) {
+            totalRows++;
+            failedRows++;
+            addError(lineNumber, message);
+        }
+
+        private void addError(int lineNumber, String message) {
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new PlaceImportErrorResponse(lineNumber, message));
+            }
+        }
+
+        private void writePending() {
+            if (pendingPlaces.isEmpty()) {
+                return;
+            }
+
+            try {
+                writeChunk(pendingPlaces);
+                importedRows += pendingPlaces.size();
+            } catch (RuntimeException e) {
+                // One bad row rolls back its whole chunk; retry the chunk row by row to find and report it
+                for (int i = 0; i < pendingPlaces.size(); i++) {
+                    try {
+                        writeChunk(List.of(pendingPlaces.get(i)));
+                        importedRows++;
+                    } catch (RuntimeException rowError) {
+                        failedRows++;
+                        addError(pendingLines.get(i), "Insert failed: " + rootMessage(rowError));
+                    }
+                }
+            }
+            pendingLines.clear();
+            pendingPlaces.clear();
+        }
+    }
+
+    // One transaction and one JDBC batch per chunk, so a failure only rolls back that chunk
+    private void writeChunk(List<Place> places) {
+        writeTransaction.executeWithoutResult(status -> {
+            PlaceMapper batchPlaceMapper = batchSession.getMapper(PlaceMapper.class);
+            for (Place place : places) {
+                batchPlaceMapper.insert(place);
+            }
+            batchSession.getMapper(DashboardMapper.class).addPlacesCreatedThisMonth(places.size());
+            // Send the batch now so constraint errors surface here rather than from the commit
+            batchSession.flushStatements();
+
+            long withImage = places.stream().filter(place -> place.getMainImage() != null).count();
+            metricCounterService.add(MetricCounterService.PLACES, places.size());
+            metricCounterService.add(MetricCounterService.IMAGES, withImage);
+        });
+    }
+
+    private static String rootMessage(Throwable error) {
+        Throwable cause = error;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage();
+    }
+
+    public void exportPlaces(OutputStream output, String format) {
+        readTransaction.executeWithoutResult(status -> {
+            try (Cursor<Place> cursor = placeMapper.streamAll()) {
+                if (FORMAT_CSV.equals(format)) {
+                    writeCsv(cursor, output);
+                } else {
+                    writeNdjson(cursor, output);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void writeNdjson(Cursor<Place> cursor, OutputStream output) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(output);
+        // One object per line instead of the default single space between root values
+        generator.setRootValueSeparator(null);
+        for (Place place : cursor) {
+            generator.writeStartObject();
+            generator.writeStringField("placeId", place.getPlaceId().toString());
+            generator.writeStringField("placeName", place.getPlaceName());
+            generator.writeStringField("description", place.getDescription());
+            generator.writeObjectField("lat", place.getLat());
+            generator.writeObjectField("longitude", place.getLongitude());
+            generator.writeStringField("mainImageUrl", place.getMainImage());
+            generator.writeObjectField("favoriteCount", place.getFavoriteCount());
+            generator.writeObjectField("createdAt", place.getCreatedAt());
+            generator.writeObjectField("updatedAt", place.getUpdatedAt());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+    }
+
+    private void writeCsv(Cursor<Place> cursor, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        writer.write(String.join(",", EXPORT_COLUMNS));
+        writer.write("\r\n");
+        for (Place place : cursor) {
+            writeCsvRow(writer, place.getPlaceId(), place.getPlaceName(), place.getDescription(),
+                    place.getLat(), place.getLongitude(), place.getMainImage(), place.getFavoriteCount(),
+                    place.getCreatedAt(), place.getUpdatedAt());
+        }
+        writer.flush();
+    }
+
+    private static void writeCsvRow(Writer writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] == null) {
+                continue;
+            }
+
+            String value = values[i].toString();
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    // Minimal RFC 4180 reader: one record at a time, quoted fields may contain commas, quotes and newlines
+    private static class CsvReader {
+        private final BufferedReader reader;
+        private int line;
+        private int recordLine;
+
+        private CsvReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        private List<String> next() throws IOException {
+            String text = reader.readLine();
+            if (text == null) {
+                return null;
+            }
+            line++;
+            recordLine = line;
+
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            int i = 0;
+            while (true) {
+                if (i == text.length()) {
+                    if (!quoted) {
+                        break;
+                    }
+                    // Newline inside a quoted field: the record continues on the next line
+                    text = reader.readLine();
+                    if (text == null) {
+                        throw new IllegalArgumentException("Unterminated quoted field starting on line " + recordLine);
+                    }
+                    line++;
+                    field.append('\n');
+                    i = 0;
+                    continue;
+                }
+
+                char c = text.charAt(i++);
+                if (quoted) {
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i < text.length() && text.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
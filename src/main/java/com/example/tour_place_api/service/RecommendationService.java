@@ -0,0 +1,385 @@
+package com.example.tour_place_api.service;
+
+import com.example.tour_place_api.model.entity.PlaceSignal;
+import com.example.tour_place_api.model.entity.PlaceSimilarity;
+import com.example.tour_place_api.model.response.RecommendedPlaceResponse;
+import com.example.tour_place_api.model.response.TrendingPlaceResponse;
+import com.example.tour_place_api.repository.mapper.PlaceSimilarityMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+// Item-item collaborative filtering. A scheduled job turns favorite/review/search_history signals into
+// cosine similarities between places and stores the top neighbors of each place in place_similarity;
+// the endpoints only read that table.
+@Slf4j
+@Service
+public class RecommendationService {
+    private static final int INSERT_BATCH_SIZE = 1000;
+
+    @Autowired
+    private PlaceSimilarityMapper placeSimilarityMapper;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${recommendations.neighbors-per-place:20}")
+    private int neighborsPerPlace;
+
+    @Value("${recommendations.favorite-weight:3.0}")
+    private double favoriteWeight;
+
+    @Value("${recommendations.review-weight:2.0}")
+    private double reviewWeight;
+
+    @Value("${recommendations.search-weight:1.0}")
+    private double searchWeight;
+
+    // Users with more signals than this add little and cost quadratically, so they are left out
+    @Value("${recommendations.max-places-per-user:500}")
+    private int maxPlacesPerUser;
+
+    @Value("${recommendations.parallelism:0}")
+    private int parallelism;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    public List<RecommendedPlaceResponse> getSimilarPlaces(UUID placeId, int limit) {
+        return placeSimilarityMapper.findSimilar(placeId, clampLimit(limit));
+    }
+
+    public List<RecommendedPlaceResponse> getRecommendedPlaces(UUID userId, int limit) {
+        limit = clampLimit(limit);
+        List<RecommendedPlaceResponse> recommended = userId != null
+                ? placeSimilarityMapper.findRecommendedForUser(userId, limit)
+                : List.of();
+        if (!recommended.isEmpty()) {
+            return recommended;
+        }
+
+        // Anonymous users and users without history get what is popular right now
+        return trendingService.getTrending(limit).stream()
+                .map(this::fromTrending)
+                .collect(Collectors.toList());
+    }
+
+    @Scheduled(cron = "${recommendations.rebuild-cron:0 0 5 * * *}")
+    public void scheduledRebuild() {
+        try {
+            rebuildSimilarities();
+        } catch (RuntimeException e) {
+            log.warn("Failed to rebuild place similarities: {}", e.getMessage());
+        }
+    }
+
+    public void rebuildSimilarities() {
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("Place similarity rebuild is already running");
+        }
+
+        try {
+            long start = System.currentTimeMillis();
+            SignalMatrix matrix = SignalMatrix.build(
+                    placeSimilarityMapper.findSignals(favoriteWeight, reviewWeight, searchWeight), maxPlacesPerUser);
+
+            int[][] neighbors = new int[matrix.placeCount()][];
+            float[][] scores = new float[matrix.placeCount()][];
+            ForkJoinPool pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+            try {
+                pool.invoke(new SimilarityTask(matrix, neighborsPerPlace, neighbors, scores, 0, matrix.placeCount()));
+            } finally {
+                pool.shutdown();
+            }
+
+            List<PlaceSimilarity> rows = new ArrayList<>();
+            for (int place = 0; place < matrix.placeCount(); place++) {
+                for (int k = 0; k < neighbors[place].length; k++) {
+                    rows.add(PlaceSimilarity.builder()
+                            .placeId(matrix.placeIds[place])
+                            .similarPlaceId(matrix.placeIds[neighbors[place][k]])
+                            .score((double) scores[place][k])
+                            .build());
+                }
+            }
+
+            // Readers see either the old model or the new one, never a partial rebuild
+            transactionTemplate.executeWithoutResult(status -> {
+                placeSimilarityMapper.deleteAll();
+                for (int from = 0; from < rows.size(); from += INSERT_BATCH_SIZE) {
+                    placeSimilarityMapper.insertBatch(rows.subList(from, Math.min(from + INSERT_BATCH_SIZE, rows.size())));
+                }
+            });
+            log.info("Rebuilt place similarities: {} places, {} users, {} pairs in {} ms",
+                    matrix.placeCount(), matrix.userCount(), rows.size(), System.currentTimeMillis() - start);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private int clampLimit(int limit) {
+        if (limit < 1) return 1;
+        return Math.min(limit, 50);
+    }
+
+    private RecommendedPlaceResponse fromTrending(TrendingPlaceResponse place) {
+        return RecommendedPlaceResponse.builder()
+                .placeId(place.getPlaceId())
+                .placeName(place.getPlaceName())
+                .mainImage(place.getMainImage())
+                .score(place.getScore())
+                .build();
+    }
+
+    // Sparse user x place matrix in compressed form, indexed both ways:
+    // placeUsers[placeStart[p]..placeStart[p+1]) are the users of place p, userPlaces likewise for users
+    private static final class SignalMatrix {
+        private final UUID[] placeIds;
+        private final int[] placeStart;
+        private final int[] placeUsers;
+        private final float[] placeWeights;
+        private final int[] userStart;
+        private final int[] userPlaces;
+        private final float[] userWeights;
+        private final double[] placeNorms;
+
+        private SignalMatrix(UUID[] placeIds, int[] placeStart, int[] placeUsers, float[] placeWeights,
+                             int[] userStart, int[] userPlaces, float[] userWeights, double[] placeNorms) {
+            this.placeIds = placeIds;
+            this.placeStart = placeStart;
+            this.placeUsers = placeUsers;
+            this.placeWeights = placeWeights;
+            this.userStart = userStart;
+            this.userPlaces = userPlaces;
+            this.userWeights = userWeights;
+            this.placeNorms = placeNorms;
+        }
+
+        private int placeCount() {
+            return placeIds.length;
+        }
+
+        private int userCount() {
+            return userStart.length - 1;
+        }
+
+        private static SignalMatrix build(List<PlaceSignal> signals, int maxPlacesPerUser) {
+            Map<UUID, Integer> userIndex = new HashMap<>();
+            Map<UUID, Integer> placeIndex = new HashMap<>();
+            List<UUID> placeIds = new ArrayList<>();
+            int[] users = new int[signals.size()];
+            int[] places = new int[signals.size()];
+            float[] weights = new float[signals.size()];
+            for (int i = 0; i < signals.size(); i++) {
+                PlaceSignal signal = signals.get(i);
+                users[i] = userIndex.computeIfAbsent(signal.getUserId(), key -> userIndex.size());
+                Integer place = placeIndex.get(signal.getPlaceId());
+                if (place == null) {
+                    place = placeIds.size();
+                    placeIndex.put(signal.getPlaceId(), place);
+                    placeIds.add(signal.getPlaceId());
+                }
+                places[i] = place;
+                weights[i] = signal.getWeight().floatValue();
+            }
+
+            int userCount = userIndex.size();
+            int placeCount = placeIds.size();
+            int[] userDegree = new int[userCount];
+            for (int user : users) {
+                userDegree[user]++;
+            }
+
+            // Counting pass, then fill, for both orientations
+            int[] userStart = new int[userCount + 1];
+            int[] placeStart = new int[placeCount + 1];
+            for (int i = 0; i < users.length; i++) {
+                if (userDegree[users[i]] <= maxPlacesPerUser) {
+                    userStart[users[i] + 1]++;
+                    placeStart[places[i] + 1]++;
+                }
+            }
+            for (int u = 0; u < userCount; u++) {
+                userStart[u + 1] += userStart[u];
+            }
+            for (int p = 0; p < placeCount; p++) {
+                placeStart[p + 1] += placeStart[p];
+            }
+
+            int[] userFill = Arrays.copyOf(userStart, userCount);
+            int[] placeFill = Arrays.copyOf(placeStart, placeCount);
+            int[] userPlaces = new int[userStart[userCount]];
+            float[] userWeights = new float[userStart[userCount]];
+            int[] placeUsers = new int[placeStart[placeCount]];
+            float[] placeWeights = new float[placeStart[placeCount]];
+            double[] placeNorms = new double[placeCount];
+            for (int i = 0; i < users.length; i++) {
+                if (userDegree[users[i]] > maxPlacesPerUser) {
+                    continue;
+                }
+                int u = userFill[users[i]]++;
+                userPlaces[u] = places[i];
+                userWeights[u] = weights[i];
+                int p = placeFill[places[i]]++;
+                placeUsers[p] = users[i];
+                placeWeights[p] = weights[i];
+                placeNorms[places[i]] += (double) weights[i] * weights[i];
+            }
+            for (int p = 0; p < placeCount; p++) {
+                placeNorms[p] = Math.sqrt(placeNorms[p]);
+            }
+
+            return new SignalMatrix(placeIds.toArray(new UUID[0]), placeStart, placeUsers, placeWeights,
+                    userStart, userPlaces, userWeights, placeNorms);
+        }
+    }
+
+    // Computes the top neighbors for a range of places, splitting the range until it is small enough
+    static final class SimilarityTask extends RecursiveAction {
+        private static final int LEAF_SIZE = 64;
+
+        private final SignalMatrix matrix;
+        private final int topN;
+        private final int[][] neighbors;
+        private final float[][] scores;
+        private final int from;
+        private final int to;
+
+        SimilarityTask(SignalMatrix matrix, int topN, int[][] neighbors, float[][] scores, int from, int to) {
+            this.matrix = matrix;
+            this.topN = topN;
+            this.neighbors = neighbors;
+            this.scores = scores;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_SIZE) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new SimilarityTask(matrix, topN, neighbors, scores, from, mid),
+                        new SimilarityTask(matrix, topN, neighbors, scores, mid, to));
+                return;
+            }
+
+            // Dense accumulator reused across the leaf; touched tracks which slots to read and reset
+            double[] dot = new double[matrix.placeCount()];
+            int[] touched = new int[matrix.placeCount()];
+            int[] heapPlaces = new int[topN];
+            float[] heapScores = new float[topN];
+            for (int place = from; place < to; place++) {
+                int touchedCount = 0;
+                for (int i = matrix.placeStart[place]; i < matrix.placeStart[place + 1]; i++) {
+                    int user = matrix.placeUsers[i];
+                    float weight = matrix.placeWeights[i];
+                    for (int j = matrix.userStart[user]; j < matrix.userStart[user + 1]; j++) {
+                        int other = matrix.userPlaces[j];
+                        if (other == place) {
+                            continue;
+                        }
+                        if (dot[other] == 0) {
+                            touched[touchedCount++] = other;
+                        }
+                        dot[other] += (double) weight * matrix.userWeights[j];
+                    }
+                }
+
+                int heapSize = 0;
+                for (int t = 0; t < touchedCount; t++) {
+                    int other = touched[t];
+                    float similarity = (float) (dot[other] / (matrix.placeNorms[place] * matrix.placeNorms[other]));
+                    dot[other] = 0;
+                    heapSize = offer(heapPlaces, heapScores, heapSize, other, similarity);
+                }
+
+                // Drain the min-heap from the back so the result is ordered best first
+                int[] bestPlaces = new int[heapSize];
+                float[] bestScores = new float[heapSize];
+                for (int k = heapSize - 1; k >= 0; k--) {
+                    bestPlaces[k] = heapPlaces[0];
+                    bestScores[k] = heapScores[0];
+                    heapSize = poll(heapPlaces, heapScores, heapSize);
+                }
+                neighbors[place] = bestPlaces;
+                scores[place] = bestScores;
+            }
+        }
+
+        // Bounded min-heap over parallel arrays: keeps the topN highest scores
+        int offer(int[] places, float[] values, int size, int place, float value) {
+            if (size < topN) {
+                places[size] = place;
+                values[size] = value;
+                siftUp(places, values, size);
+                return size + 1;
+            }
+            if (value > values[0]) {
+                places[0] = place;
+                values[0] = value;
+                siftDown(places, values, size);
+            }
+            return size;
+        }
+
+        int poll(int[] places, float[] values, int size) {
+            size--;
+            places[0] = places[size];
+            values[0] = values[size];
+            siftDown(places, values, size);
+            return size;
+        }
+
+        private static void siftUp(int[] places, float[] values, int index) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (values[parent] <= values[index]) {
+                    return;
+                }
+                swap(places, values, parent, index);
+                index = parent;
+            }
+        }
+
+        private static void siftDown(int[] places, float[] values, int size) {
+            int index = 0;
+            while (true) {
+                int left = 2 * index + 1;
+                if (left >= size) {
+                    return;
+                }
+                int smallest = left + 1 < size && values[left + 1] < values[left] ? left + 1 : left;
+                if (values[index] <= values[smallest]) {
+                    return;
+                }
+                swap(places, values, index, smallest);
+                index = smallest;
+            }
+        }
+
+        private static void swap(int[] places, float[] values, int a, int b) {
+            int place = places[a];
+            places[a] = places[b];
+            places[b] = place;
+            float value = values[a];
+            values[a] = values[b];
+            values[b] = value;
+        }
+    }
+}
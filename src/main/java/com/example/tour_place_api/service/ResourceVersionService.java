@@ -0,0 +1,76 @@
+package com.example.tour_place_api.service;
+
+import com.example.tour_place_api.repository.mapper.PlaceMapper;
+import com.example.tour_place_api.repository.mapper.ReviewMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.UUID;
+
+// ETags derived from cheap version lookups (catalog version, review count and newest updated_at values) rather than
+// from the serialized body, so a matching If-None-Match is answered before the real query runs
+@Service
+public class ResourceVersionService {
+    @Autowired
+    private PlaceMapper placeMapper;
+
+    @Autowired
+    private ReviewMapper reviewMapper;
+
+    @Autowired
+    private FavoriteSetCache favoriteSetCache;
+
+    @Autowired
+    private CatalogService catalogService;
+
+    // The catalog version changes with every place change, so it versions every place listing;
+    // it is also sent as X-Catalog-Version for clients that sync incrementally
+    public String placesETag(ServletWebRequest request, UUID viewerId) {
+        long catalogVersion = catalogService.getCurrentVersion();
+        request.getResponse().setHeader(CatalogService.VERSION_HEADER, String.valueOf(catalogVersion));
+
+        String etag = "places-" + catalogVersion;
+        // isFavorite differs per user, so the user's favorites are part of the version
+        if (viewerId != null) {
+            etag += "-" + favoriteSetCache.get(viewerId).fingerprint();
+        }
+        return quote(etag);
+    }
+
+    // Null when the place does not exist, so the not-found response is never answered with 304
+    public String placeETag(UUID placeId, UUID viewerId) {
+        Long version = placeMapper.findPlaceVersion(placeId);
+        if (version == null) {
+            return null;
+        }
+
+        String etag = "place-" + version;
+        if (viewerId != null) {
+            etag += favoriteSetCache.get(viewerId).contains(placeId) ? "-f" : "-n";
+        }
+        return quote(etag);
+    }
+
+    // Reviews carry the reviewer's name and picture, so reviewer profile changes are part of the version too
+    public String placeReviewsETag(UUID placeId) {
+        String version = reviewMapper.findPlaceReviewsVersion(placeId);
+        return version == null ? null : quote("reviews-" + version);
+    }
+
+    // Returns true when the client's copy is current; the response is then a 304 and the caller returns null.
+    // Cache-Control is set on both paths so clients keep the body and revalidate instead of refetching
+    public boolean checkNotModified(ServletWebRequest request, String etag, boolean perUser) {
+        if (etag == null) {
+            return false;
+        }
+        request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, perUser ? "private, no-cache" : "no-cache");
+        return request.checkNotModified(etag);
+    }
+
+    // Weak because Tomcat never gzips a response carrying a strong ETag; If-None-Match compares weakly anyway
+    private static String quote(String etag) {
+        return "W/\"" + etag + "\"";
+    }
+}
@@ -1,78 +1,230 @@
 package com.example.tour_place_api.service;
 
-import com.example.tour_place_api.model.entity.Place;
 import com.example.tour_place_api.model.entity.SearchHistory;
 import com.example.tour_place_api.model.request.CreateSearchHistoryRequest;
 import com.example.tour_place_api.model.response.SearchHistoryResponse;
-import com.example.tour_place_api.repository.mapper.PlaceMapper;
 import com.example.tour_place_api.repository.mapper.SearchHistoryMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 public class SearchHistoryService {
+    private static final int LATEST_LIMIT = 10;
+
     @Autowired
     private SearchHistoryMapper searchHistoryMapper;
 
     @Autowired
-    private PlaceMapper placeMapper;
+    private TrendingService trendingService;
+
+    @Value("${search-history.max-per-user:20}")
+    private int maxPerUser;
+
+    @Value("${search-history.write-behind.enabled:true}")
+    private boolean writeBehindEnabled;
+
+    @Value("${search-history.write-behind.max-buffered:10000}")
+    private int maxBuffered;
+
+    @Value("${search-history.write-behind.batch-size:500}")
+    private int flushBatchSize;
+
+    // Searches not yet written, by user then place; a repeated (user, place) tap only moves its timestamp
+    private final ConcurrentHashMap<UUID, ConcurrentHashMap<UUID, BufferedSearch>> buffer = new ConcurrentHashMap<>();
+    private final AtomicInteger bufferedCount = new AtomicInteger();
 
     public SearchHistoryResponse createOrUpdateSearchHistory(UUID userId, CreateSearchHistoryRequest request) {
-        UUID placeId = request.getPlaceId();
-        
-        // Verify place exists
-        Optional<Place> placeOptional = placeMapper.findById(placeId);
-        if (placeOptional.isEmpty()) {
-            throw new RuntimeException("Place not found");
+        if (!writeBehindEnabled) {
+            SearchHistoryResponse history = searchHistoryMapper.upsert(UUID.randomUUID(), userId, request.getPlaceId(), maxPerUser)
+                    .orElseThrow(() -> new RuntimeException("Place not found"));
+            trendingService.recordSearch(history.getPlaceId());
+            return history;
         }
 
-        // Check if search history already exists for this user and place
-        Optional<SearchHistory> existingHistory = searchHistoryMapper.findByUserAndPlace(userId, placeId);
-        
-        if (existingHistory.isPresent()) {
-            // Update the timestamp to make it the latest search
-            searchHistoryMapper.updateTimestampByUserAndPlace(userId, placeId);
-            SearchHistory updated = existingHistory.get();
-            // Refresh to get updated timestamp
-            updated = searchHistoryMapper.findByUserAndPlace(userId, placeId).orElse(updated);
-            Place place = placeOptional.get();
-            return mapToResponse(updated, place);
-        } else {
-            // Create new search history
-            SearchHistory searchHistory = SearchHistory.builder()
-                    .searchId(UUID.randomUUID())
-                    .userId(userId)
-                    .placeId(placeId)
-                    .build();
-            
-            searchHistoryMapper.insert(searchHistory);
-            
-            // Fetch the created history to get timestamps
-            SearchHistory created = searchHistoryMapper.findByUserAndPlace(userId, placeId)
-                    .orElse(searchHistory);
-            Place place = placeOptional.get();
-            return mapToResponse(created, place);
+        SearchHistoryResponse target = searchHistoryMapper.findForSearch(userId, request.getPlaceId())
+                .orElseThrow(() -> new RuntimeException("Place not found"));
+        UUID placeId = target.getPlaceId();
+        trendingService.recordSearch(placeId);
+        LocalDateTime searchedAt = LocalDateTime.now();
+
+        // Repeated taps on the same place coalesce into one pending entry with the latest time.
+        // The entry keeps the searchId of the stored row, or gets the one the row will be created with,
+        // so the id returned now can be used to delete the search before the flush
+        BufferedSearch[] buffered = new BufferedSearch[1];
+        buffer.compute(userId, (key, searches) -> {
+            if (searches == null) {
+                searches = new ConcurrentHashMap<>();
+            }
+            BufferedSearch previous = searches.get(placeId);
+            UUID searchId = previous != null ? previous.searchId
+                    : target.getSearchId() != null ? target.getSearchId() : UUID.randomUUID();
+            buffered[0] = new BufferedSearch(searchId, target.getPlaceName(), target.getMainImage(), searchedAt);
+            if (searches.put(placeId, buffered[0]) == null) {
+                bufferedCount.incrementAndGet();
+            }
+            return searches;
+        });
+
+        if (bufferedCount.get() >= maxBuffered) {
+            // Buffer is full: this request pays for the write instead of letting memory grow
+            scheduledFlush();
+        }
+
+        return SearchHistoryResponse.builder()
+                .searchId(buffered[0].searchId)
+                .userId(userId)
+                .placeId(placeId)
+                .placeName(target.getPlaceName())
+                .mainImage(target.getMainImage())
+                .createdAt(target.getCreatedAt() != null ? target.getCreatedAt() : searchedAt)
+                .updatedAt(searchedAt)
+                .build();
+    }
+
+    @Scheduled(fixedDelayString = "${search-history.write-behind.flush-interval-ms:2000}")
+    public void scheduledFlush() {
+        try {
+            flushBuffer();
+        } catch (RuntimeException e) {
+            log.warn("Failed to flush buffered search history, will retry: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        scheduledFlush();
+    }
+
+    public synchronized void flushBuffer() {
+        List<SearchHistory> batch = new ArrayList<>();
+        List<BufferedSearch> written = new ArrayList<>();
+        for (Map.Entry<UUID, ConcurrentHashMap<UUID, BufferedSearch>> user : buffer.entrySet()) {
+            for (Map.Entry<UUID, BufferedSearch> entry : user.getValue().entrySet()) {
+                batch.add(SearchHistory.builder()
+                        .searchId(entry.getValue().searchId)
+                        .userId(user.getKey())
+                        .placeId(entry.getKey())
+                        .updatedAt(entry.getValue().searchedAt)
+                        .build());
+                written.add(entry.getValue());
+                if (batch.size() >= flushBatchSize) {
+                    writeBatch(batch, written);
+                    batch.clear();
+                    written.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch, written);
+        }
+    }
+
+    private void writeBatch(List<SearchHistory> batch, List<BufferedSearch> written) {
+        searchHistoryMapper.upsertBatch(batch);
+
+        Set<UUID> userIds = new HashSet<>();
+        for (int i = 0; i < batch.size(); i++) {
+            SearchHistory history = batch.get(i);
+            userIds.add(history.getUserId());
+            // Only drop the entry if it wasn't re-tapped while the batch was being written
+            removeBuffered(history.getUserId(), history.getPlaceId(), written.get(i));
+        }
+        searchHistoryMapper.trimUsersToNewest(userIds, maxPerUser);
+    }
+
+    private void removeBuffered(UUID userId, UUID placeId, BufferedSearch expected) {
+        buffer.computeIfPresent(userId, (key, searches) -> {
+            boolean removed = expected != null ? searches.remove(placeId, expected) : searches.remove(placeId) != null;
+            if (removed) {
+                bufferedCount.decrementAndGet();
+            }
+            return searches.isEmpty() ? null : searches;
+        });
+    }
+
+    @Scheduled(cron = "${search-history.trim-cron:0 30 4 * * *}")
+    public void trimSearchHistory() {
+        try {
+            int removed = searchHistoryMapper.trimToNewestPerUser(maxPerUser);
+            if (removed > 0) {
+                log.info("Trimmed {} old search history entries", removed);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to trim search history: {}", e.getMessage());
         }
     }
 
     public List<SearchHistoryResponse> getLatestSearchHistory(UUID userId) {
-        List<SearchHistory> histories = searchHistoryMapper.findLatestByUserId(userId);
-        
-        return histories.stream()
-                .map(history -> {
-                    Optional<Place> placeOptional = placeMapper.findById(history.getPlaceId());
-                    return placeOptional.map(place -> mapToResponse(history, place)).orElse(null);
-                })
-                .filter(response -> response != null)
+        List<SearchHistoryResponse> responses = searchHistoryMapper.findLatestResponsesByUserId(userId, LATEST_LIMIT);
+        return mergeBuffered(userId, responses);
+    }
+
+    // Overlays searches still waiting in the write-behind buffer so users see their latest taps immediately
+    private List<SearchHistoryResponse> mergeBuffered(UUID userId, List<SearchHistoryResponse> stored) {
+        ConcurrentHashMap<UUID, BufferedSearch> searches = buffer.get(userId);
+        if (searches == null || searches.isEmpty()) {
+            return stored;
+        }
+
+        Map<UUID, SearchHistoryResponse> byPlace = new LinkedHashMap<>();
+        for (SearchHistoryResponse response : stored) {
+            byPlace.put(response.getPlaceId(), response);
+        }
+        searches.forEach((placeId, search) -> {
+            SearchHistoryResponse existing = byPlace.get(placeId);
+            if (existing == null) {
+                byPlace.put(placeId, SearchHistoryResponse.builder()
+                        .searchId(search.searchId)
+                        .userId(userId)
+                        .placeId(placeId)
+                        .placeName(search.placeName)
+                        .mainImage(search.mainImage)
+                        .createdAt(search.searchedAt)
+                        .updatedAt(search.searchedAt)
+                        .build());
+            } else if (existing.getUpdatedAt() == null || existing.getUpdatedAt().isBefore(search.searchedAt)) {
+                existing.setUpdatedAt(search.searchedAt);
+            }
+        });
+
+        return byPlace.values().stream()
+                .sorted(Comparator.comparing(SearchHistoryResponse::getUpdatedAt,
+                        Comparator.nullsLast(Comparator.reverseOrder())))
+                .limit(LATEST_LIMIT)
                 .collect(Collectors.toList());
     }
 
     public void updateSearchHistoryTimestamp(UUID searchId, UUID userId) {
+        UUID bufferedPlaceId = findBufferedPlaceId(userId, searchId);
+        if (bufferedPlaceId != null) {
+            // Not written yet: moving the pending entry's time is the whole update
+            buffer.computeIfPresent(userId, (key, searches) -> {
+                searches.computeIfPresent(bufferedPlaceId, (placeId, search) ->
+                        new BufferedSearch(search.searchId, search.placeName, search.mainImage, LocalDateTime.now()));
+                return searches;
+            });
+            return;
+        }
+
         Optional<SearchHistory> historyOptional = searchHistoryMapper.findById(searchId);
         
         if (historyOptional.isEmpty()) {
@@ -88,6 +240,14 @@ public class SearchHistoryService {
     }
 
     public void deleteSearchHistory(UUID searchId, UUID userId) {
+        UUID bufferedPlaceId = findBufferedPlaceId(userId, searchId);
+        if (bufferedPlaceId != null) {
+            removeBuffered(userId, bufferedPlaceId, null);
+            // The entry may also be stored already, under the same id
+            searchHistoryMapper.delete(searchId);
+            return;
+        }
+
         Optional<SearchHistory> historyOptional = searchHistoryMapper.findById(searchId);
         
         if (historyOptional.isEmpty()) {
@@ -100,18 +260,35 @@ public class SearchHistoryService {
         }
         
         searchHistoryMapper.delete(searchId);
+        // Otherwise a pending tap on the same place would bring the entry back on the next flush
+        removeBuffered(userId, history.getPlaceId(), null);
     }
 
-    private SearchHistoryResponse mapToResponse(SearchHistory history, Place place) {
-        return SearchHistoryResponse.builder()
-                .searchId(history.getSearchId())
-                .userId(history.getUserId())
-                .placeId(history.getPlaceId())
-                .placeName(place.getPlaceName())
-                .mainImage(place.getMainImage())
-                .createdAt(history.getCreatedAt())
-                .updatedAt(history.getUpdatedAt())
-                .build();
+    // Only the user's own buffer is searched, so another user's pending id is never matched
+    private UUID findBufferedPlaceId(UUID userId, UUID searchId) {
+        ConcurrentHashMap<UUID, BufferedSearch> searches = buffer.get(userId);
+        if (searches == null) {
+            return null;
+        }
+        for (Map.Entry<UUID, BufferedSearch> entry : searches.entrySet()) {
+            if (entry.getValue().searchId.equals(searchId)) {
+                return entry.getKey();
+            }
+        }
+        return null;
     }
-}
 
+    private static class BufferedSearch {
+        private final UUID searchId;
+        private final String placeName;
+        private final String mainImage;
+        private final LocalDateTime searchedAt;
+
+        private BufferedSearch(UUID searchId, String placeName, String mainImage, LocalDateTime searchedAt) {
+            this.searchId = searchId;
+            this.placeName = placeName;
+            this.mainImage = mainImage;
+            this.searchedAt = searchedAt;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.tour_place_api.service;
+
+import com.example.tour_place_api.model.response.StorageCleanupResponse;
+import com.example.tour_place_api.repository.mapper.StorageMapper;
+import io.minio.Result;
+import io.minio.messages.Item;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Service
+public class StorageCleanupService {
+    @Autowired
+    private MinioService minioService;
+
+    @Autowired
+    private StorageMapper storageMapper;
+
+    @Value("${storage.cleanup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${storage.cleanup.dry-run:true}")
+    private boolean dryRun;
+
+    @Value("${storage.cleanup.grace-period-hours:24}")
+    private long gracePeriodHours;
+
+    @Value("${storage.cleanup.page-size:1000}")
+    private int pageSize;
+
+    @Value("${storage.cleanup.delete-batch-size:500}")
+    private int deleteBatchSize;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicLong totalRuns = new AtomicLong();
+    private final AtomicLong totalObjectsDeleted = new AtomicLong();
+    private volatile StorageCleanupResponse lastRun;
+
+    @Scheduled(initialDelayString = "${storage.cleanup.initial-delay-ms:600000}",
+               fixedDelayString = "${storage.cleanup.interval-ms:21600000}")
+    public void scheduledCleanup() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            StorageCleanupResponse result = collectOrphans(dryRun);
+            log.info("Storage cleanup finished (dryRun={}): scanned={}, orphans={}, deleted={}, failures={}",
+                    result.getDryRun(), result.getObjectsScanned(), result.getOrphansFound(),
+                    result.getObjectsDeleted(), result.getDeleteFailures());
+        } catch (RuntimeException e) {
+            log.warn("Storage cleanup failed: {}", e.getMessage());
+        }
+    }
+
+    public StorageCleanupResponse collectOrphans(boolean dryRun) {
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("Storage cleanup is already running");
+        }
+
+        try {
+            LocalDateTime startedAt = LocalDateTime.now();
+            long start = System.currentTimeMillis();
+
+            // Load references before listing, so anything uploaded after this point is newer than the cutoff
+            Set<String> referenced = new HashSet<>();
+            for (String imageUrl : storageMapper.findReferencedImageUrls()) {
+                String objectName = minioService.resolveObjectName(imageUrl);
+                if (objectName != null) {
+                    referenced.add(objectName);
+                }
+            }
+
+            // Objects younger than the grace period may be uploaded but not yet attached to a place or profile
+            Instant cutoff = Instant.now().minus(Duration.ofHours(gracePeriodHours));
+            LocalDateTime registeredBefore = LocalDateTime.now().minusHours(gracePeriodHours);
+
+            long scanned = 0;
+            long orphans = 0;
+            long deleted = 0;
+            long failures = 0;
+            List<String> batch = new ArrayList<>();
+
+            for (Result<Item> result : minioService.listObjects(pageSize)) {
+                Item item;
+                try {
+                    item = result.get();
+                } catch (Exception e) {
+                    throw new RuntimeException("Failed to list files from MinIO: " + e.getMessage(), e);
+                }
+                if (item.isDir()) {
+                    continue;
+                }
+
+                scanned++;
+                if (referenced.contains(item.objectName())
+                        || item.lastModified() == null
+                        || item.lastModified().toInstant().isAfter(cutoff)) {
+                    continue;
+                }
+
+                batch.add(item.objectName());
+                if (batch.size() >= deleteBatchSize) {
+                    List<String> batchOrphans = claimOrphans(batch, registeredBefore, dryRun);
+                    orphans += batchOrphans.size();
+                    if (!dryRun) {
+                        int failed = deleteBatch(batchOrphans);
+                        deleted += batchOrphans.size() - failed;
+                        failures += failed;
+                    }
+                    batch.clear();
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                List<String> batchOrphans = claimOrphans(batch, registeredBefore, dryRun);
+                orphans += batchOrphans.size();
+                if (!dryRun) {
+                    int failed = deleteBatch(batchOrphans);
+                    deleted += batchOrphans.size() - failed;
+                    failures += failed;
+                }
+            }
+
+            StorageCleanupResponse response = StorageCleanupResponse.builder()
+                    .dryRun(dryRun)
+                    .startedAt(startedAt)
+                    .durationMs(System.currentTimeMillis() - start)
+                    .referencedObjects((long) referenced.size())
+                    .objectsScanned(scanned)
+                    .orphansFound(orphans)
+                    .objectsDeleted(deleted)
+                    .deleteFailures(failures)
+                    .totalRuns(totalRuns.incrementAndGet())
+                    .totalObjectsDeleted(totalObjectsDeleted.addAndGet(deleted))
+                    .build();
+            lastRun = response;
+            return response;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // A deduplicated upload can hand out an old object at any time, so lastModified alone does not make an
+    // indexed object an orphan: its content-hash entry must also be unreferenced and outside the grace period
+    private List<String> claimOrphans(List<String> candidates, LocalDateTime registeredBefore, boolean dryRun) {
+        List<String> kept;
+        if (dryRun) {
+            kept = storageMapper.findProtectedObjectNames(candidates, registeredBefore);
+        } else {
+            // Drop the entries before the objects: an upload of the same content then stores a new object instead of
+            // resolving to one about to be removed. Any entry still present afterwards keeps its object
+            storageMapper.deleteByObjectNames(candidates, registeredBefore);
+            kept = storageMapper.findIndexedObjectNames(candidates);
+        }
+
+        List<String> orphanNames = new ArrayList<>(candidates);
+        orphanNames.removeAll(new HashSet<>(kept));
+        return orphanNames;
+    }
+
+    private int deleteBatch(List<String> objectNames) {
+        if (objectNames.isEmpty()) {
+            return 0;
+        }
+        return minioService.deleteFiles(objectNames).size();
+    }
+
+    public StorageCleanupResponse getLastRun() {
+        if (lastRun == null) {
+            throw new RuntimeException("Storage cleanup has not run yet");
+        }
+        return lastRun;
+    }
+}
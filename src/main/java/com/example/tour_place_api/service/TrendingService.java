@@ -0,0 +1,278 @@
+package com.example.tour_place_api.service;
+
+import com.example.tour_place_api.model.entity.Place;
+import com.example.tour_place_api.model.entity.PlaceTrendingScore;
+import com.example.tour_place_api.model.response.TrendingPlaceResponse;
+import com.example.tour_place_api.repository.mapper.PlaceMapper;
+import com.example.tour_place_api.repository.mapper.PlaceTrendingMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Exponentially decayed popularity per place, fed by searches and favorites as they happen.
+// Scores use forward decay: each event adds weight * e^(lambda * (t - landmark)), so counters never need
+// to be decayed in place and their relative order only changes when a new event arrives.
+@Slf4j
+@Service
+public class TrendingService {
+    // Rebase before e^(lambda * age) gets anywhere near double overflow
+    private static final double MAX_LANDMARK_EXPONENT = 50;
+
+    @Autowired
+    private PlaceTrendingMapper placeTrendingMapper;
+
+    @Autowired
+    private PlaceMapper placeMapper;
+
+    @Value("${trending.half-life-hours:24}")
+    private double halfLifeHours;
+
+    @Value("${trending.search-weight:1.0}")
+    private double searchWeight;
+
+    @Value("${trending.favorite-weight:3.0}")
+    private double favoriteWeight;
+
+    @Value("${trending.top-k:50}")
+    private int topK;
+
+    @Value("${trending.min-score:0.01}")
+    private double minScore;
+
+    private final ConcurrentHashMap<UUID, DoubleAdder> scores = new ConcurrentHashMap<>();
+    // Events take the read lock so they run concurrently; rebasing the landmark takes the write lock
+    private final ReentrantReadWriteLock landmarkLock = new ReentrantReadWriteLock();
+    private volatile long landmarkMillis = System.currentTimeMillis();
+
+    private final AtomicBoolean loaded = new AtomicBoolean(false);
+    private final AtomicBoolean rankingDirty = new AtomicBoolean(false);
+    private volatile List<RankedPlace> topPlaces = List.of();
+
+    public void recordSearch(UUID placeId) {
+        record(placeId, searchWeight);
+    }
+
+    public void recordFavorite(UUID placeId) {
+        record(placeId, favoriteWeight);
+    }
+
+    private void record(UUID placeId, double weight) {
+        landmarkLock.readLock().lock();
+        try {
+            double scaled = weight * Math.exp(lambda() * hoursSince(landmarkMillis, System.currentTimeMillis()));
+            scores.computeIfAbsent(placeId, key -> new DoubleAdder()).add(scaled);
+        } finally {
+            landmarkLock.readLock().unlock();
+        }
+        rankingDirty.set(true);
+    }
+
+    public List<TrendingPlaceResponse> getTrending(int limit) {
+        if (limit < 1) limit = 1;
+        if (limit > topK) limit = topK;
+
+        ensureLoaded();
+        if (rankingDirty.get() && topPlaces.isEmpty()) {
+            refreshRanking();
+        }
+
+        // The ranking is precomputed; only the first limit entries are read and scaled to the current time
+        List<RankedPlace> ranked = topPlaces;
+        double decay = Math.exp(-lambda() * hoursSince(landmarkMillis, System.currentTimeMillis()));
+        List<TrendingPlaceResponse> trending = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (int i = 0; i < ranked.size() && i < limit; i++) {
+            RankedPlace place = ranked.get(i);
+            trending.add(TrendingPlaceResponse.builder()
+                    .placeId(place.placeId)
+                    .placeName(place.placeName)
+                    .mainImage(place.mainImage)
+                    .score(place.landmarkScore * decay)
+                    .build());
+        }
+        return trending;
+    }
+
+    @Scheduled(fixedDelayString = "${trending.refresh-interval-ms:10000}")
+    public void scheduledRefresh() {
+        if (!loaded.get() || !rankingDirty.get()) {
+            return;
+        }
+        try {
+            refreshRanking();
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh trending places: {}", e.getMessage());
+        }
+    }
+
+    private synchronized void refreshRanking() {
+        rankingDirty.set(false);
+
+        // Min-heap of the best topK seen so far: O(n log k) over the counters, and no GROUP BY over history
+        PriorityQueue<Map.Entry<UUID, Double>> heap = new PriorityQueue<>(topK + 1, Map.Entry.comparingByValue());
+        scores.forEach((placeId, score) -> {
+            heap.offer(Map.entry(placeId, score.sum()));
+            if (heap.size() > topK) {
+                heap.poll();
+            }
+        });
+        if (heap.isEmpty()) {
+            topPlaces = List.of();
+            return;
+        }
+
+        Map<UUID, Double> best = new HashMap<>();
+        for (Map.Entry<UUID, Double> entry : heap) {
+            best.put(entry.getKey(), entry.getValue());
+        }
+        List<RankedPlace> ranked = new ArrayList<>();
+        for (Place place : placeMapper.findByIds(best.keySet())) {
+            ranked.add(new RankedPlace(place.getPlaceId(), place.getPlaceName(), place.getMainImage(),
+                    best.get(place.getPlaceId())));
+        }
+        ranked.sort(Comparator.comparingDouble((RankedPlace place) -> place.landmarkScore).reversed());
+        topPlaces = ranked;
+
+        // Places that no longer exist are forgotten
+        if (ranked.size() < best.size()) {
+            for (RankedPlace place : ranked) {
+                best.remove(place.placeId);
+            }
+            best.keySet().forEach(scores::remove);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${trending.checkpoint-interval-ms:300000}")
+    public void checkpoint() {
+        if (!loaded.get() && scores.isEmpty()) {
+            return;
+        }
+
+        try {
+            ensureLoaded();
+            writeCheckpoint();
+        } catch (RuntimeException e) {
+            log.warn("Failed to checkpoint trending scores: {}", e.getMessage());
+        }
+    }
+
+    private synchronized void writeCheckpoint() {
+        long now = System.currentTimeMillis();
+        rebaseIfNeeded(now);
+
+        // Stored scores are decayed to the checkpoint time so they stay meaningful independent of the landmark
+        double decay = Math.exp(-lambda() * hoursSince(landmarkMillis, now));
+        LocalDateTime checkpointAt = toLocalDateTime(now);
+        List<PlaceTrendingScore> batch = new ArrayList<>();
+        for (Map.Entry<UUID, DoubleAdder> entry : scores.entrySet()) {
+            double score = entry.getValue().sum() * decay;
+            if (score < minScore) {
+                scores.remove(entry.getKey(), entry.getValue());
+                continue;
+            }
+            batch.add(PlaceTrendingScore.builder()
+                    .placeId(entry.getKey())
+                    .score(score)
+                    .updatedAt(checkpointAt)
+                    .build());
+            if (batch.size() >= 500) {
+                placeTrendingMapper.upsertBatch(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            placeTrendingMapper.upsertBatch(batch);
+        }
+        placeTrendingMapper.deleteOlderThan(checkpointAt);
+
+        // Pruning or a rebase changes the stored ranking scores
+        refreshRanking();
+    }
+
+    private void rebaseIfNeeded(long now) {
+        if (lambda() * hoursSince(landmarkMillis, now) < MAX_LANDMARK_EXPONENT) {
+            return;
+        }
+
+        landmarkLock.writeLock().lock();
+        try {
+            double factor = Math.exp(-lambda() * hoursSince(landmarkMillis, now));
+            scores.replaceAll((placeId, score) -> {
+                DoubleAdder rebased = new DoubleAdder();
+                rebased.add(score.sum() * factor);
+                return rebased;
+            });
+            landmarkMillis = now;
+        } finally {
+            landmarkLock.writeLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded.get()) {
+            return;
+        }
+
+        synchronized (this) {
+            if (loaded.get()) {
+                return;
+            }
+            // Checkpointed scores are added to anything recorded since startup
+            landmarkLock.readLock().lock();
+            try {
+                for (PlaceTrendingScore stored : placeTrendingMapper.findAll()) {
+                    long storedAt = stored.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                    double scaled = stored.getScore() * Math.exp(lambda() * hoursSince(landmarkMillis, storedAt));
+                    scores.computeIfAbsent(stored.getPlaceId(), key -> new DoubleAdder()).add(scaled);
+                }
+            } finally {
+                landmarkLock.readLock().unlock();
+            }
+            loaded.set(true);
+            rankingDirty.set(true);
+        }
+    }
+
+    private double lambda() {
+        return Math.log(2) / halfLifeHours;
+    }
+
+    private static double hoursSince(long fromMillis, long toMillis) {
+        return (toMillis - fromMillis) / (double) Duration.ofHours(1).toMillis();
+    }
+
+    private static LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    private static class RankedPlace {
+        private final UUID placeId;
+        private final String placeName;
+        private final String mainImage;
+        private final double landmarkScore;
+
+        private RankedPlace(UUID placeId, String placeName, String mainImage, double landmarkScore) {
+            this.placeId = placeId;
+            this.placeName = placeName;
+            this.mainImage = mainImage;
+            this.landmarkScore = landmarkScore;
+        }
+    }
+}
@@ -3,15 +3,24 @@ package com.example.tour_place_api.service;
 import com.example.tour_place_api.model.entity.User;
 import com.example.tour_place_api.model.request.UpdateUserRoleRequest;
 import com.example.tour_place_api.model.request.UpdateUserStatusRequest;
+import com.example.tour_place_api.model.response.UserPageResponse;
 import com.example.tour_place_api.model.response.UserResponse;
 import com.example.tour_place_api.repository.mapper.UserMapper;
 import lombok.RequiredArgsConstructor;
+import org.apache.ibatis.cursor.Cursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,6 +33,9 @@ public class UserManagementService {
     @Autowired
     private DashboardService dashboardService;
 
+    @Autowired
+    private MetricCounterService metricCounterService;
+
     public List<UserResponse> getAllUsers() {
         // Get only regular users (exclude admin role)
         List<User> users = userMapper.findAllRegularUsers();
@@ -32,6 +44,68 @@ public class UserManagementService {
                 .collect(Collectors.toList());
     }
 
+    // The cursor only fetches in batches inside a transaction; without one the driver reads every row up front
+    @Transactional(readOnly = true)
+    public void streamAllUsers(Consumer<UserResponse> sink) {
+        try (Cursor<User> users = userMapper.streamRegularUsers()) {
+            for (User user : users) {
+                sink.accept(mapToResponse(user));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public UserPageResponse getUsersPage(String cursor, int limit, Boolean status, LocalDateTime createdFrom,
+                                         LocalDateTime createdTo, String emailPrefix, String search) {
+        if (limit < 1) limit = 1;
+        if (limit > 100) limit = 100;
+
+        LocalDateTime beforeCreatedAt = null;
+        UUID beforeUserId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                beforeCreatedAt = LocalDateTime.parse(parts[0]);
+                beforeUserId = UUID.fromString(parts[1]);
+            } catch (Exception e) {
+                throw new RuntimeException("Invalid cursor");
+            }
+        }
+
+        // One extra row tells whether another page exists
+        List<User> users = userMapper.findRegularUsersBefore(beforeCreatedAt, beforeUserId, status, createdFrom,
+                createdTo, toLikePattern(emailPrefix), toLikePattern(search), limit + 1);
+        boolean hasMore = users.size() > limit;
+        if (hasMore) {
+            users = users.subList(0, limit);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            User last = users.get(users.size() - 1);
+            nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                    (last.getCreatedAt() + "|" + last.getUserId()).getBytes(StandardCharsets.UTF_8));
+        }
+
+        return UserPageResponse.builder()
+                .users(users.stream().map(this::mapToResponse).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    // User input is matched literally: LIKE wildcards are escaped with the default backslash escape
+    private String toLikePattern(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+
     public UserResponse getUserById(UUID userId) {
         Optional<User> userOptional = userMapper.findById(userId);
         if (userOptional.isEmpty()) {
@@ -90,6 +164,14 @@ public class UserManagementService {
 
         User updatedUser = updatedUserOptional.get();
 
+        // Only regular users are counted, so moving between roles changes the user count
+        String previousRole = userOptional.get().getRole();
+        if ("user".equals(previousRole) && "admin".equals(updatedUser.getRole())) {
+            metricCounterService.decrement(MetricCounterService.USERS);
+        } else if ("admin".equals(previousRole) && "user".equals(updatedUser.getRole())) {
+            metricCounterService.increment(MetricCounterService.USERS);
+        }
+
         // Log activity
         dashboardService.logActivity("USER_ROLE_UPDATED", "USER", userId, updatedUser.getEmail(), currentAdminId);
 
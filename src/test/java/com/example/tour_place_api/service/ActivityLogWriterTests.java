@@ -0,0 +1,183 @@
+package com.example.tour_place_api.service;
+
+import com.example.tour_place_api.model.entity.ActivityLog;
+import com.example.tour_place_api.repository.mapper.DashboardMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class ActivityLogWriterTests {
+
+    @Test
+    void capacityIsRoundedUpToAPowerOfTwo() {
+        assertEquals(8, new ActivityLogWriter.RingBuffer(5).capacity());
+        assertEquals(8, new ActivityLogWriter.RingBuffer(8).capacity());
+        assertEquals(2, new ActivityLogWriter.RingBuffer(0).capacity());
+    }
+
+    @Test
+    void singleProducerIsPolledInOrder() {
+        ActivityLogWriter.RingBuffer buffer = new ActivityLogWriter.RingBuffer(8);
+        List<ActivityLog> offered = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ActivityLog activityLog = activity("p0", i);
+            offered.add(activityLog);
+            assertTrue(buffer.offer(activityLog));
+        }
+        assertEquals(5, buffer.size());
+
+        for (ActivityLog expected : offered) {
+            assertSame(expected, buffer.poll());
+        }
+        assertNull(buffer.poll());
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void rejectsOffersWhenFullAndWrapsAround() {
+        ActivityLogWriter.RingBuffer buffer = new ActivityLogWriter.RingBuffer(4);
+        int next = 0;
+        int expected = 0;
+        // Many times around the four slots, keeping the buffer full at each step
+        for (int round = 0; round < 25; round++) {
+            while (buffer.size() < buffer.capacity()) {
+                assertTrue(buffer.offer(activity("p0", next++)));
+            }
+            assertFalse(buffer.offer(activity("p0", -1)));
+
+            for (int i = 0; i < 3; i++) {
+                assertEquals("p0:" + expected++, buffer.poll().getEntityName());
+            }
+        }
+
+        while (buffer.size() > 0) {
+            assertEquals("p0:" + expected++, buffer.poll().getEntityName());
+        }
+        assertEquals(next, expected);
+        assertNull(buffer.poll());
+    }
+
+    @Test
+    @Timeout(60)
+    void multipleProducersLoseAndDuplicateNothing() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 5_000;
+        ActivityLogWriter.RingBuffer buffer = new ActivityLogWriter.RingBuffer(64);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            String producer = "p" + p;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    ActivityLog activityLog = activity(producer, i);
+                    while (!buffer.offer(activityLog)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+
+        // Single consumer; each producer's entries must arrive in the order it offered them
+        int[] nextPerProducer = new int[producers];
+        Set<String> seen = new HashSet<>();
+        int received = 0;
+        while (received < producers * perProducer) {
+            ActivityLog activityLog = buffer.poll();
+            if (activityLog == null) {
+                Thread.yield();
+                continue;
+            }
+            String[] parts = activityLog.getEntityName().split(":");
+            int producer = Integer.parseInt(parts[0].substring(1));
+            int sequence = Integer.parseInt(parts[1]);
+            assertTrue(seen.add(activityLog.getEntityName()), "Duplicate " + activityLog.getEntityName());
+            assertEquals(nextPerProducer[producer]++, sequence);
+            received++;
+        }
+
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        assertNull(buffer.poll());
+        assertEquals(producers * perProducer, seen.size());
+    }
+
+    @Test
+    void dropPolicyDiscardsWhenFull() {
+        DashboardMapper dashboardMapper = mock(DashboardMapper.class);
+        ActivityLogWriter writer = writer(dashboardMapper, ActivityLogWriter.OverflowPolicy.DROP);
+
+        writer.enqueue(activity("p0", 0));
+        writer.enqueue(activity("p0", 1));
+        writer.enqueue(activity("p0", 2));
+
+        verify(dashboardMapper, never()).insertActivity(any());
+        assertEquals(2L, writer.getStats().getEnqueued());
+        assertEquals(1L, writer.getStats().getDropped());
+        assertEquals(0L, writer.getStats().getCallerRuns());
+        assertEquals(2L, writer.getStats().getQueueDepth());
+    }
+
+    @Test
+    void callerRunsPolicyWritesOnTheCallingThreadWhenFull() {
+        DashboardMapper dashboardMapper = mock(DashboardMapper.class);
+        ActivityLogWriter writer = writer(dashboardMapper, ActivityLogWriter.OverflowPolicy.CALLER_RUNS);
+
+        writer.enqueue(activity("p0", 0));
+        writer.enqueue(activity("p0", 1));
+        ActivityLog overflow = activity("p0", 2);
+        writer.enqueue(overflow);
+
+        verify(dashboardMapper).insertActivity(overflow);
+        assertEquals(2L, writer.getStats().getEnqueued());
+        assertEquals(0L, writer.getStats().getDropped());
+        assertEquals(1L, writer.getStats().getCallerRuns());
+        assertEquals(1L, writer.getStats().getWritten());
+        assertEquals(2L, writer.getStats().getQueueDepth());
+    }
+
+    // No flusher thread is started, so the buffer only empties when a test polls it
+    private static ActivityLogWriter writer(DashboardMapper dashboardMapper, ActivityLogWriter.OverflowPolicy policy) {
+        ActivityLogWriter writer = new ActivityLogWriter();
+        ReflectionTestUtils.setField(writer, "dashboardMapper", dashboardMapper);
+        ReflectionTestUtils.setField(writer, "batchSize", 200);
+        ReflectionTestUtils.setField(writer, "overflowPolicy", policy);
+        ReflectionTestUtils.setField(writer, "buffer", new ActivityLogWriter.RingBuffer(2));
+        return writer;
+    }
+
+    private static ActivityLog activity(String producer, int sequence) {
+        return ActivityLog.builder()
+                .action("PLACE_CREATED")
+                .entityType("PLACE")
+                .entityName(producer + ":" + sequence)
+                .build();
+    }
+}
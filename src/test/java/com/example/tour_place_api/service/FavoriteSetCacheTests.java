@@ -0,0 +1,121 @@
+package com.example.tour_place_api.service;
+
+import com.example.tour_place_api.service.FavoriteSetCache.FavoriteSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FavoriteSetCacheTests {
+
+    @Test
+    void emptySetContainsNothing() {
+        FavoriteSet favorites = FavoriteSet.of(List.of());
+        assertEquals(0, favorites.size());
+        assertFalse(favorites.contains(UUID.randomUUID()));
+    }
+
+    @Test
+    void containsExactlyTheLoadedIdsWithoutDuplicates() {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        UUID c = UUID.randomUUID();
+        FavoriteSet favorites = FavoriteSet.of(List.of(c, a, b, a));
+
+        assertEquals(3, favorites.size());
+        assertTrue(favorites.contains(a));
+        assertTrue(favorites.contains(b));
+        assertTrue(favorites.contains(c));
+        assertFalse(favorites.contains(UUID.randomUUID()));
+    }
+
+    @Test
+    void ordersIdsBySignedBits() {
+        // Negative bits sort before positive ones, and ties on the high bits fall back to the low bits
+        UUID negative = new UUID(Long.MIN_VALUE, 1);
+        UUID zero = new UUID(0, 0);
+        UUID sameHigh = new UUID(0, -1);
+        UUID positive = new UUID(Long.MAX_VALUE, Long.MAX_VALUE);
+        FavoriteSet favorites = FavoriteSet.of(List.of(positive, sameHigh, zero, negative));
+
+        for (UUID placeId : List.of(negative, zero, sameHigh, positive)) {
+            assertTrue(favorites.contains(placeId));
+        }
+        assertFalse(favorites.contains(new UUID(0, 1)));
+        assertFalse(favorites.contains(new UUID(Long.MIN_VALUE, 0)));
+    }
+
+    @Test
+    void withAndWithoutReturnNewSetsAndLeaveTheOriginal() {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        FavoriteSet original = FavoriteSet.of(List.of(a));
+
+        FavoriteSet added = original.with(b);
+        assertTrue(added.contains(a));
+        assertTrue(added.contains(b));
+        assertFalse(original.contains(b));
+
+        FavoriteSet removed = added.without(a);
+        assertFalse(removed.contains(a));
+        assertTrue(removed.contains(b));
+        assertTrue(added.contains(a));
+    }
+
+    @Test
+    void unchangedSetIsReturnedForNoOpChanges() {
+        UUID a = UUID.randomUUID();
+        FavoriteSet favorites = FavoriteSet.of(List.of(a));
+        assertSame(favorites, favorites.with(a));
+        assertSame(favorites, favorites.without(UUID.randomUUID()));
+    }
+
+    @Test
+    void matchesAHashSetThroughRandomChanges() {
+        Random random = new Random(42);
+        List<UUID> pool = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            pool.add(new UUID(random.nextLong(), random.nextLong()));
+        }
+
+        Set<UUID> expected = new HashSet<>();
+        FavoriteSet favorites = FavoriteSet.of(List.of());
+        for (int i = 0; i < 5_000; i++) {
+            UUID placeId = pool.get(random.nextInt(pool.size()));
+            if (random.nextBoolean()) {
+                expected.add(placeId);
+                favorites = favorites.with(placeId);
+            } else {
+                expected.remove(placeId);
+                favorites = favorites.without(placeId);
+            }
+        }
+
+        assertEquals(expected.size(), favorites.size());
+        for (UUID placeId : pool) {
+            assertEquals(expected.contains(placeId), favorites.contains(placeId));
+        }
+        assertEquals(FavoriteSet.of(new ArrayList<>(expected)).fingerprint(), favorites.fingerprint());
+    }
+
+    @Test
+    void fingerprintFollowsContents() {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        FavoriteSet favorites = FavoriteSet.of(List.of(a, b));
+
+        assertEquals(favorites.fingerprint(), FavoriteSet.of(List.of(b, a)).fingerprint());
+        assertNotEquals(favorites.fingerprint(), favorites.without(b).fingerprint());
+        assertEquals(favorites.fingerprint(), favorites.without(b).with(b).fingerprint());
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.tour_place_api.service;
+
+import com.example.tour_place_api.model.entity.PlaceSignal;
+import com.example.tour_place_api.model.entity.PlaceSimilarity;
+import com.example.tour_place_api.repository.mapper.PlaceSimilarityMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RecommendationServiceTests {
+
+    @Test
+    void heapKeepsTheHighestScoresAndDrainsLowestFirst() {
+        int topN = 5;
+        RecommendationService.SimilarityTask task = new RecommendationService.SimilarityTask(null, topN, null, null, 0, 0);
+        Random random = new Random(7);
+        int[] heapPlaces = new int[topN];
+        float[] heapScores = new float[topN];
+        List<Float> offered = new ArrayList<>();
+
+        int size = 0;
+        for (int place = 0; place < 1_000; place++) {
+            float score = random.nextFloat();
+            offered.add(score);
+            size = task.offer(heapPlaces, heapScores, size, place, score);
+        }
+        assertEquals(topN, size);
+
+        offered.sort(Comparator.naturalOrder());
+        List<Float> expected = offered.subList(offered.size() - topN, offered.size());
+        for (int k = 0; k < topN; k++) {
+            assertEquals(expected.get(k), heapScores[0]);
+            size = task.poll(heapPlaces, heapScores, size);
+        }
+        assertEquals(0, size);
+    }
+
+    @Test
+    void heapHoldsFewerThanTopNWhenFewerAreOffered() {
+        RecommendationService.SimilarityTask task = new RecommendationService.SimilarityTask(null, 10, null, null, 0, 0);
+        int[] heapPlaces = new int[10];
+        float[] heapScores = new float[10];
+
+        int size = 0;
+        float[] scores = {0.3f, 0.9f, 0.1f};
+        for (int place = 0; place < scores.length; place++) {
+            size = task.offer(heapPlaces, heapScores, size, place, scores[place]);
+        }
+        assertEquals(3, size);
+
+        int[] drained = new int[size];
+        for (int k = 0; k < drained.length; k++) {
+            drained[k] = heapPlaces[0];
+            size = task.poll(heapPlaces, heapScores, size);
+        }
+        assertEquals(2, drained[0]);
+        assertEquals(0, drained[1]);
+        assertEquals(1, drained[2]);
+    }
+
+    @Test
+    void rebuildMatchesBruteForceCosineSimilarity() {
+        int topN = 4;
+        Random random = new Random(11);
+        List<UUID> places = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            places.add(UUID.randomUUID());
+        }
+
+        // Each user has a few weighted signals; the map keeps one weight per (user, place)
+        Map<UUID, Map<UUID, Double>> vectors = new HashMap<>();
+        List<PlaceSignal> signals = new ArrayList<>();
+        for (int u = 0; u < 300; u++) {
+            UUID userId = UUID.randomUUID();
+            Map<UUID, Double> userPlaces = new HashMap<>();
+            int signalCount = 1 + random.nextInt(6);
+            for (int s = 0; s < signalCount; s++) {
+                UUID placeId = places.get(random.nextInt(places.size()));
+                if (userPlaces.containsKey(placeId)) {
+                    continue;
+                }
+                double weight = 0.5 + random.nextInt(12) * 0.5;
+                userPlaces.put(placeId, weight);
+                signals.add(PlaceSignal.builder().userId(userId).placeId(placeId).weight(weight).build());
+            }
+            vectors.put(userId, userPlaces);
+        }
+
+        List<PlaceSimilarity> rows = rebuild(signals, topN);
+
+        Map<UUID, Map<UUID, Double>> expected = bruteForce(vectors);
+        Map<UUID, List<PlaceSimilarity>> byPlace = new HashMap<>();
+        for (PlaceSimilarity row : rows) {
+            byPlace.computeIfAbsent(row.getPlaceId(), key -> new ArrayList<>()).add(row);
+        }
+
+        for (Map.Entry<UUID, Map<UUID, Double>> entry : expected.entrySet()) {
+            List<Double> best = new ArrayList<>(entry.getValue().values());
+            best.sort(Comparator.reverseOrder());
+            best = best.subList(0, Math.min(topN, best.size()));
+
+            // Compared by score, so ties at the cut may pick either place
+            List<PlaceSimilarity> actual = byPlace.getOrDefault(entry.getKey(), List.of());
+            assertEquals(best.size(), actual.size());
+            for (int k = 0; k < actual.size(); k++) {
+                PlaceSimilarity row = actual.get(k);
+                assertEquals(best.get(k), row.getScore(), 1e-5);
+                assertEquals(entry.getValue().get(row.getSimilarPlaceId()), row.getScore(), 1e-5);
+            }
+        }
+    }
+
+    private static List<PlaceSimilarity> rebuild(List<PlaceSignal> signals, int topN) {
+        PlaceSimilarityMapper placeSimilarityMapper = mock(PlaceSimilarityMapper.class);
+        when(placeSimilarityMapper.findSignals(anyDouble(), anyDouble(), anyDouble())).thenReturn(signals);
+
+        RecommendationService service = new RecommendationService();
+        ReflectionTestUtils.setField(service, "placeSimilarityMapper", placeSimilarityMapper);
+        ReflectionTestUtils.setField(service, "transactionTemplate", new TransactionTemplate() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                return action.doInTransaction(null);
+            }
+        });
+        ReflectionTestUtils.setField(service, "neighborsPerPlace", topN);
+        ReflectionTestUtils.setField(service, "maxPlacesPerUser", 500);
+        ReflectionTestUtils.setField(service, "parallelism", 2);
+        service.rebuildSimilarities();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<PlaceSimilarity>> batches = ArgumentCaptor.forClass(List.class);
+        verify(placeSimilarityMapper, atLeastOnce()).insertBatch(batches.capture());
+        List<PlaceSimilarity> rows = new ArrayList<>();
+        batches.getAllValues().forEach(rows::addAll);
+        return rows;
+    }
+
+    // Cosine similarity between place columns of the user x place matrix, for every pair sharing a user
+    private static Map<UUID, Map<UUID, Double>> bruteForce(Map<UUID, Map<UUID, Double>> vectors) {
+        Map<UUID, Double> norms = new HashMap<>();
+        Map<UUID, Map<UUID, Double>> dots = new HashMap<>();
+        for (Map<UUID, Double> userPlaces : vectors.values()) {
+            for (Map.Entry<UUID, Double> a : userPlaces.entrySet()) {
+                norms.merge(a.getKey(), a.getValue() * a.getValue(), Double::sum);
+                for (Map.Entry<UUID, Double> b : userPlaces.entrySet()) {
+                    if (!a.getKey().equals(b.getKey())) {
+                        dots.computeIfAbsent(a.getKey(), key -> new HashMap<>())
+                                .merge(b.getKey(), a.getValue() * b.getValue(), Double::sum);
+                    }
+                }
+            }
+        }
+
+        Map<UUID, Map<UUID, Double>> similarities = new HashMap<>();
+        dots.forEach((place, others) -> others.forEach((other, dot) ->
+                similarities.computeIfAbsent(place, key -> new HashMap<>())
+                        .put(other, dot / (Math.sqrt(norms.get(place)) * Math.sqrt(norms.get(other))))));
+        return similarities;
+    }
+}